@@ -0,0 +1,36 @@
+package ch.uzh.ifi.hase.soprafs23;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the game logic benchmarks at every lobby size with the GC profiler, which adds allocated bytes per operation.
+ * JMH command line options are accepted and override these defaults, e.g. "-p lobbySize=20" or "-f 2".
+ */
+public class GameLogicBenchmarks {
+    private static final String[] BENCHMARKS = {
+        "PollBenchmark",
+        "GameBenchmark",
+        "LobbyBenchmark",
+        "FractionRoleBenchmark",
+        "LogicDTOMapperBenchmark",
+        "TokenBenchmark.accessTokenBuild",
+    };
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(new CommandLineOptions(args));
+        for (String benchmark : BENCHMARKS) {
+            options.include("\\." + benchmark.replace(".", "\\."));
+        }
+        Options built = options
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(built).run();
+    }
+}
@@ -0,0 +1,76 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.uzh.ifi.hase.soprafs23.constant.VoiceChatRole;
+import ch.uzh.ifi.hase.soprafs23.entity.User;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.service.AgoraService;
+
+/**
+ * Throughput of voice channel token generation: building a token, serving it from the cache, and the HMAC alone.
+ * accessTokenBuild measures AccessToken.build without the token builder around it.
+ * Runs on several threads, since Macs and pack buffers are shared through a pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class TokenBenchmark {
+    private static final String APP_ID = "2d64cdbec0324225b28f83ed19f75397";
+    private static final String APP_CERTIFICATE = "8214500e1ebd4e10bcd411dd4df44395";
+
+    private final RTCTokenBuilder tokenBuilder = new RTCTokenBuilder();
+    private final byte[] message = new byte[96];
+    private AgoraService agoraService;
+    private Lobby lobby;
+    private User user;
+
+    @Setup
+    public void setup() {
+        agoraService = new AgoraService();
+        user = new User();
+        user.setId(42l);
+        user.setUsername("user");
+        lobby = new Lobby(1l, new Player(42l, "user"));
+    }
+
+    @Benchmark
+    public String buildToken() {
+        return tokenBuilder.buildTokenWithUserAccount("1", "42", VoiceChatRole.Role_Publisher);
+    }
+
+    @Benchmark
+    public String accessTokenBuild() throws Exception {
+        AccessToken accessToken = new AccessToken(APP_ID, APP_CERTIFICATE, "1", "42");
+        accessToken.addPrivilege(AccessToken.Privileges.kJoinChannel, 1_000_000);
+        accessToken.addPrivilege(AccessToken.Privileges.kPublishAudioStream, 1_000_000);
+        return accessToken.build();
+    }
+
+    @Benchmark
+    public String cachedToken() {
+        return agoraService.createVoiceChannelToken(lobby, user);
+    }
+
+    @Benchmark
+    public byte[] hmacSign() throws Exception {
+        return Utils.hmacSign(APP_CERTIFICATE, message);
+    }
+}
@@ -0,0 +1,150 @@
+package ch.uzh.ifi.hase.soprafs23.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.uzh.ifi.hase.soprafs23.agora.LatencyHistogram;
+
+/**
+ * Finds how many concurrent polling clients one running server sustains.
+ * Every client is a user with its own lobby that polls the lobby and its user's lobby once per interval, like the frontend does.
+ * The number of clients is raised step by step until the p99 latency exceeds the budget or requests fail.
+ * Compare a server started with ./gradlew bootRun against one started with ./gradlew bootRun -PvirtualThreads.
+ * Arguments: base url, comma separated client counts, seconds per step, poll interval in ms, p99 budget in ms.
+ */
+public class PollingLoadTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String baseUrl;
+    private final long pollIntervalMillis;
+    private final List<Client> clients = new ArrayList<>();
+
+    private record Client(long userId, String token, long lobbyId) {
+    }
+
+    private record StepResult(int clients, long requests, long errors, double requestsPerSecond, double meanMillis, double p99Millis, double maxMillis) {
+    }
+
+    public PollingLoadTest(String baseUrl, long pollIntervalMillis) {
+        this.baseUrl = baseUrl;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int[] steps = Arrays.stream((args.length > 1 ? args[1] : "100,250,500,1000,2000,4000").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        long secondsPerStep = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        long pollIntervalMillis = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+        double p99BudgetMillis = args.length > 4 ? Double.parseDouble(args[4]) : 500;
+
+        PollingLoadTest loadTest = new PollingLoadTest(baseUrl, pollIntervalMillis);
+        int sustained = 0;
+        // p99 is the upper bound of its histogram bucket, so it can be above the max
+        System.out.println("clients  requests  errors  req/s  mean ms  p99 ms  max ms");
+        for (int clientCount : steps) {
+            loadTest.createClients(clientCount);
+            StepResult result = loadTest.runStep(clientCount, secondsPerStep);
+            System.out.printf("%7d  %8d  %6d  %5.0f  %7.1f  %6.0f  %6.0f%n", result.clients(), result.requests(), result.errors(),
+                result.requestsPerSecond(), result.meanMillis(), result.p99Millis(), result.maxMillis());
+            if (result.errors() > 0 || result.p99Millis() > p99BudgetMillis) {
+                break;
+            }
+            sustained = clientCount;
+        }
+        System.out.printf("sustained %d polling clients with p99 <= %.0f ms%n", sustained, p99BudgetMillis);
+    }
+
+    /**
+     * Registers users with a lobby each until there are clientCount of them.
+     */
+    private void createClients(int clientCount) {
+        List<CompletableFuture<Client>> created = new ArrayList<>();
+        // usernames have at most 16 characters
+        String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+        for (int i = clients.size(); i < clientCount; i++) {
+            String body = String.format("{\"username\":\"l%s-%d\",\"password\":\"password\"}", runId, i);
+            created.add(send(HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)))
+                .thenCompose(user -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/lobbies"))
+                        .header("token", user.get("token").asText())
+                        .POST(HttpRequest.BodyPublishers.noBody()))
+                    .thenApply(lobby -> new Client(user.get("id").asLong(), user.get("token").asText(), lobby.get("id").asLong()))));
+            // register in chunks instead of all users at once
+            if (created.size() % 50 == 0) {
+                created.forEach(CompletableFuture::join);
+            }
+        }
+        created.forEach(future -> clients.add(future.join()));
+    }
+
+    private CompletableFuture<JsonNode> send(HttpRequest.Builder request) {
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException(String.format("%s answered %d", response.uri(), response.statusCode()));
+            }
+            try {
+                return objectMapper.readTree(response.body());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private StepResult runStep(int clientCount, long seconds) throws InterruptedException {
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Executor pacing = CompletableFuture.delayedExecutor(pollIntervalMillis, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < clientCount; i++) {
+            Client client = clients.get(i);
+            // spread the first polls over the interval
+            long offset = pollIntervalMillis * i / clientCount;
+            CompletableFuture.delayedExecutor(offset, TimeUnit.MILLISECONDS)
+                .execute(() -> poll(client, 0, running, pacing, latency, errors));
+        }
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        running.set(false);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return new StepResult(clientCount, latency.getCount(), errors.get(), latency.getCount() / elapsedSeconds,
+            latency.getMeanMillis(), latency.getQuantileUpperBoundMillis(0.99), latency.getMaxMillis());
+    }
+
+    private void poll(Client client, int round, AtomicBoolean running, Executor pacing, LatencyHistogram latency, AtomicLong errors) {
+        if (!running.get()) {
+            return;
+        }
+        String path = round % 2 == 0 ? "/lobbies/" + client.lobbyId() : "/users/" + client.userId() + "/lobby";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("token", client.token())
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+        long start = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+            latency.record(System.nanoTime() - start);
+            if (e != null || response.statusCode() >= 400) {
+                errors.incrementAndGet();
+            }
+            pacing.execute(() -> poll(client, round + 1, running, pacing, latency, errors));
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package ch.uzh.ifi.hase.soprafs23.logic;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.logic.game.GameMailbox;
+import ch.uzh.ifi.hase.soprafs23.logic.game.VirtualScheduler;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+
+/**
+ * Games for the logic benchmarks. They run on the calling thread and a virtual clock, so no timer fires while measuring.
+ * Lobby sizes above Lobby.MAX_SIZE are allowed here to see how the logic scales.
+ */
+public final class GameFixture {
+
+    private GameFixture() {
+    }
+
+    /**
+     * @pre lobbySize >= Lobby.MIN_SIZE
+     * @return game with instantiated and assigned roles that has not been started
+     */
+    public static Game createGame(int lobbySize) {
+        Game game = createGameWithoutRoles(lobbySize);
+        game.getLobby().assignRoles();
+        return game;
+    }
+
+    /**
+     * @pre lobbySize >= Lobby.MIN_SIZE
+     * @return game with instantiated roles that no player has been assigned to yet
+     */
+    public static Game createGameWithoutRoles(int lobbySize) {
+        Lobby lobby = new Lobby(1L, new Player(0L, "player0"), new VirtualScheduler());
+        for (long id = 1; id < lobbySize; id++) {
+            lobby.addPlayer(new Player(id, "player" + id));
+        }
+        Game game = new Game(lobby, new GameMailbox(Runnable::run));
+        lobby.instantiateRoles(lobby::getAlivePlayers, lobby::addPlayerToRole, game::getCurrentStagePollCommands, game::removePollCommandFromCurrentStage, game::addPollCommandToCurrentStage, lobby::getRolesOfPlayer);
+        return game;
+    }
+
+    public static Game createStartedGame(int lobbySize) {
+        Game game = createGame(lobbySize);
+        game.startGame();
+        return game;
+    }
+}
@@ -0,0 +1,46 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.uzh.ifi.hase.soprafs23.logic.GameFixture;
+
+/**
+ * Stage transition from the first day to the first night, which collects the stage's commands, checks for a winner and opens the night polls.
+ * Every invocation needs a fresh game, so the small lobby sizes include some setup noise.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    @Param({"5", "20", "100", "1000"})
+    public int lobbySize;
+
+    private Game game;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        game = GameFixture.createStartedGame(lobbySize);
+    }
+
+    @Benchmark
+    public Game onStageFinished() {
+        game.onStageFinished();
+        return game;
+    }
+}
@@ -0,0 +1,76 @@
+package ch.uzh.ifi.hase.soprafs23.logic.lobby;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.uzh.ifi.hase.soprafs23.logic.GameFixture;
+import ch.uzh.ifi.hase.soprafs23.logic.role.Role;
+
+/**
+ * Role assignment and the lobby lookups every request and poll makes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LobbyBenchmark {
+    @Param({"5", "20", "100", "1000"})
+    public int lobbySize;
+
+    private Lobby lobby;
+    private List<Player> players;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        lobby = GameFixture.createGame(lobbySize).getLobby();
+        players = new ArrayList<>(lobby.getPlayers());
+    }
+
+    /**
+     * Roles assign observers to their players, so every assignment gets new players instead of reusing the previous ones.
+     */
+    @State(Scope.Thread)
+    public static class UnassignedLobby {
+        private Lobby lobby;
+
+        @Setup(Level.Invocation)
+        public void setup(LobbyBenchmark benchmark) {
+            lobby = GameFixture.createGameWithoutRoles(benchmark.lobbySize).getLobby();
+        }
+    }
+
+    @Benchmark
+    public Lobby assignRoles(UnassignedLobby unassigned) {
+        unassigned.lobby.assignRoles();
+        return unassigned.lobby;
+    }
+
+    @Benchmark
+    public List<Player> getAlivePlayers() {
+        return lobby.getAlivePlayers();
+    }
+
+    @Benchmark
+    public Collection<Role> getRolesOfPlayer() {
+        next = (next + 1) % lobbySize;
+        return lobby.getRolesOfPlayer(players.get(next));
+    }
+}
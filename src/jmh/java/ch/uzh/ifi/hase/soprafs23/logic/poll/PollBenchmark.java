@@ -0,0 +1,91 @@
+package ch.uzh.ifi.hase.soprafs23.logic.poll;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.NullPollCommand;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.tiedpolldecider.RandomTiedPollDecider;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
+
+/**
+ * Voting in a poll where every player of the lobby is an option and a participant, like the day vote.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PollBenchmark {
+    @Param({"5", "20", "100", "1000"})
+    public int lobbySize;
+
+    private List<Player> players;
+    private Poll poll;
+    private List<PollOption> pollOptions;
+    private List<PollParticipant> pollParticipants;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        players = new ArrayList<>();
+        for (long id = 0; id < lobbySize; id++) {
+            players.add(new Player(id, "player" + id));
+        }
+        pollOptions = createOptions();
+        pollParticipants = createParticipants();
+        poll = createPoll(pollOptions, pollParticipants);
+    }
+
+    private List<PollOption> createOptions() {
+        return players.stream().map(player -> new PollOption(player, new NullPollCommand())).toList();
+    }
+
+    private List<PollParticipant> createParticipants() {
+        return players.stream().map(PollParticipant::new).toList();
+    }
+
+    private static Poll createPoll(List<PollOption> pollOptions, List<PollParticipant> pollParticipants) {
+        return new Poll(Villager.class, "Who is a werewolf?", pollOptions, pollParticipants, 60, new RandomTiedPollDecider());
+    }
+
+    @Benchmark
+    public int castAndRemoveVote() {
+        next = (next + 1) % lobbySize;
+        PollParticipant voter = pollParticipants.get(next);
+        PollOption pollOption = pollOptions.get(lobbySize - 1 - next);
+        poll.castVote(voter, pollOption);
+        poll.removeVote(voter, pollOption);
+        return poll.getRemainingVotes();
+    }
+
+    /**
+     * A whole poll round: creating the poll, every participant voting and finishing it.
+     */
+    @Benchmark
+    public Poll voteAndFinish() {
+        List<PollOption> roundOptions = createOptions();
+        List<PollParticipant> roundParticipants = createParticipants();
+        Poll round = createPoll(roundOptions, roundParticipants);
+        for (int i = 0; i < lobbySize; i++) {
+            // most votes go to the first option, so the poll is never tied
+            round.castVote(roundParticipants.get(i), roundOptions.get(i % 3 == 0 ? i : 0));
+        }
+        round.finish();
+        return round;
+    }
+}
@@ -0,0 +1,87 @@
+package ch.uzh.ifi.hase.soprafs23.logic.poll;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.NullPollCommand;
+
+/**
+ * Compares deciding a poll from the vote tally against sorting the options by supporters, as Poll.finish did before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoteTallyBenchmark {
+    @Param({"8", "20", "100"})
+    public int optionCount;
+
+    private List<PollOption> pollOptions;
+    private VoteTally voteTally;
+    private PollParticipant voter;
+    private int nextSlot = 0;
+
+    @Setup
+    public void setup() {
+        pollOptions = new ArrayList<>();
+        for (long id = 0; id < optionCount; id++) {
+            pollOptions.add(new PollOption(new Player(id, "player" + id), new NullPollCommand()));
+        }
+        voter = new PollParticipant(new Player(-1l, "voter"), optionCount * optionCount);
+        voteTally = new VoteTally(optionCount, optionCount * optionCount);
+        // option i gets i votes, so the last option leads
+        for (int slot = 0; slot < optionCount; slot++) {
+            for (int i = 0; i < slot; i++) {
+                pollOptions.get(slot).addSupporter(voter);
+                voteTally.increment(slot);
+            }
+        }
+    }
+
+    private int nextSlot() {
+        nextSlot = (nextSlot + 1) % optionCount;
+        return nextSlot;
+    }
+
+    @Benchmark
+    public PollOption decide_tally() {
+        return voteTally.isTie() ? null : pollOptions.get(voteTally.getLeader());
+    }
+
+    @Benchmark
+    public PollOption decide_sorted() {
+        List<PollOption> ordered = pollOptions.stream()
+            .sorted(Comparator.comparing(PollOption::getSupportersAmount).reversed())
+            .toList();
+        PollOption first = ordered.get(0);
+        boolean tie = ordered.size() < 2
+            ? first.getSupportersAmount() == 0
+            : first.getSupportersAmount() == ordered.get(1).getSupportersAmount();
+        return tie ? null : first;
+    }
+
+    @Benchmark
+    public int castAndRemove_tally() {
+        int slot = nextSlot();
+        voteTally.increment(slot);
+        voteTally.decrement(slot);
+        return voteTally.getMaxCount();
+    }
+}
@@ -0,0 +1,50 @@
+package ch.uzh.ifi.hase.soprafs23.logic.role;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.uzh.ifi.hase.soprafs23.logic.GameFixture;
+
+/**
+ * The winner check Game runs after every stage, over all fractions of the lobby.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FractionRoleBenchmark {
+    @Param({"5", "20", "100", "1000"})
+    public int lobbySize;
+
+    private List<FractionRole> fractions;
+
+    @Setup
+    public void setup() {
+        fractions = GameFixture.createGame(lobbySize).getLobby().getFractions();
+    }
+
+    @Benchmark
+    public int hasWon() {
+        int won = 0;
+        for (FractionRole fraction : fractions) {
+            if (fraction.hasWon()) {
+                won++;
+            }
+        }
+        return won;
+    }
+}
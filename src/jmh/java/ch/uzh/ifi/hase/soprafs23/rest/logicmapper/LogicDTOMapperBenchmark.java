@@ -0,0 +1,46 @@
+package ch.uzh.ifi.hase.soprafs23.rest.logicmapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.uzh.ifi.hase.soprafs23.logic.GameFixture;
+import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.GameGetDTO;
+
+/**
+ * Building the game DTO that is sent on every game update, without the actions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogicDTOMapperBenchmark {
+    @Param({"5", "20", "100", "1000"})
+    public int lobbySize;
+
+    private Game game;
+
+    @Setup
+    public void setup() {
+        game = GameFixture.createStartedGame(lobbySize);
+    }
+
+    @Benchmark
+    public GameGetDTO convertGameToGameGetDTO() {
+        return LogicDTOMapper.convertGameToGameGetDTO(game, List.of());
+    }
+}
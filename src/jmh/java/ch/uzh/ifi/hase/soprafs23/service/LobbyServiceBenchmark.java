@@ -0,0 +1,89 @@
+package ch.uzh.ifi.hase.soprafs23.service;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.uzh.ifi.hase.soprafs23.entity.User;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+
+/**
+ * Compares the indexed user to lobby lookup against the full scan it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LobbyServiceBenchmark {
+    private static final int PLAYERS_PER_LOBBY = 5;
+
+    @Param({"10000"})
+    public int lobbyCount;
+
+    private LobbyService lobbyService;
+    private long userCount;
+    private long nextUser = 0;
+    private User freeUser;
+    private Lobby freeLobby;
+
+    private static User createUser(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        return user;
+    }
+
+    @Setup
+    public void setup() {
+        lobbyService = new LobbyService();
+        long id = 1;
+        for (int i = 0; i < lobbyCount; i++) {
+            Lobby lobby = lobbyService.createNewLobby(createUser(id++));
+            for (int j = 1; j < PLAYERS_PER_LOBBY; j++) {
+                lobbyService.joinUserToLobby(createUser(id++), lobby);
+            }
+        }
+        userCount = id - 1;
+        freeUser = createUser(id++);
+        freeLobby = lobbyService.createNewLobby(createUser(id));
+    }
+
+    private long nextUserId() {
+        nextUser = nextUser % userCount + 1;
+        return nextUser;
+    }
+
+    @Benchmark
+    public Lobby getLobbyOfUser_indexed() {
+        return lobbyService.getLobbyOfUser(nextUserId());
+    }
+
+    @Benchmark
+    public Lobby getLobbyOfUser_scan() {
+        Long userId = nextUserId();
+        return lobbyService.getLobbies()
+                .stream()
+                .filter(lobby -> lobby.getPlayers().stream().anyMatch(player -> Objects.equals(player.getId(), userId)))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Benchmark
+    public void joinAndLeaveLobby() {
+        lobbyService.joinUserToLobby(freeUser, freeLobby);
+        lobbyService.removeUserFromLobby(freeUser, freeLobby);
+    }
+}
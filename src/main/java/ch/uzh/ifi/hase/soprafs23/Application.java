@@ -1,7 +1,9 @@
 package ch.uzh.ifi.hase.soprafs23;
 
 import org.springframework.boot.SpringApplication;
+import org.apache.coyote.ProtocolHandler;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -33,4 +35,12 @@ public class Application {
       }
     };
   }
+
+  /**
+   * Handles every request on its own virtual thread if they are enabled, see VirtualThreads.
+   */
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequestExecutor() {
+    return protocolHandler -> VirtualThreads.newPerTaskExecutor("tomcat-request-").ifPresent(protocolHandler::setExecutor);
+  }
 }
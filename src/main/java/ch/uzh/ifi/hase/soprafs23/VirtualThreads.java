@@ -0,0 +1,49 @@
+package ch.uzh.ifi.hase.soprafs23;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opt-in virtual threads for blocking request handling and timer callbacks.
+ * Enabled with the system property werewolf.virtual-threads=true or the environment variable WEREWOLF_VIRTUAL_THREADS=true
+ * when running on a JDK with virtual threads. The code is compiled for Java 17, so they are looked up reflectively,
+ * and everything keeps running on platform threads if they are disabled or missing.
+ */
+public final class VirtualThreads {
+    public static final String PROPERTY = "werewolf.virtual-threads";
+    public static final String ENVIRONMENT_VARIABLE = "WEREWOLF_VIRTUAL_THREADS";
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isRequested() {
+        return Boolean.parseBoolean(System.getProperty(PROPERTY, System.getenv(ENVIRONMENT_VARIABLE)));
+    }
+
+    /**
+     * @return executor that starts a new virtual thread per task, empty if virtual threads are not requested or not available
+     */
+    public static Optional<ExecutorService> newPerTaskExecutor(String namePrefix) {
+        if (!isRequested()) {
+            return Optional.empty();
+        }
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return Optional.of((ExecutorService) newThreadPerTaskExecutor.invoke(null, factory));
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads were requested but are not available on Java {}, using platform threads", Runtime.version().feature());
+            return Optional.empty();
+        }
+    }
+}
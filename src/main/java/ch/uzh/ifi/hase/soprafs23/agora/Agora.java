@@ -5,16 +5,25 @@ import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import javax.transaction.Transactional;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -28,11 +37,30 @@ public class Agora {
 
     private static final String appId = "2d64cdbec0324225b28f83ed19f75397";
 
+    private static final String kickingRuleUri = "https://api.agora.io/dev/v1/kicking-rule";
+
+    private static final Logger log = LoggerFactory.getLogger(Agora.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final AgoraClient client = new AgoraClient(authorizationHeader, 8, Duration.ofSeconds(10), 3, Duration.ofMillis(200));
+
+    private static final Map<String, CompletableFuture<Void>> channelTails = new ConcurrentHashMap<>();
+
+    private static final KickingRuleRegistry registry = new KickingRuleRegistry();
+
+    private static final int DELETE_BATCH_SIZE = 10;
+
+    private static final LatencyHistogram batchLatency = new LatencyHistogram();
+
+    private static volatile int batchParallelism = 8;
+
+    @Value("${agora.reconcile-on-startup:false}")
+    private boolean reconcileOnStartup;
+
     //Creates RequestBody for ban rule. Ban is applied to either Optional player or Optional channelname to apply ban to whole channel. State privilege for ban and reason.
     //Privilege is either "join_channel" or "publish_audio"
     private static String createRequestBody(Optional<Player> player, Optional<String> cname, String privilege, Reason reason) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-
         Map<String, Object> requestBodyMap = new HashMap<>();
         requestBodyMap.put("appid", appId);
         player.ifPresent(value -> requestBodyMap.put("uid", value.getId()));
@@ -47,121 +75,213 @@ public class Agora {
 
     // Send Http Request by providing requestBody and method (GET, POST, DELETE allowed). Agora Server answer is given back (e.g. all Rules if GET)
     // For GET no requestBody is needed, therefore just pass "" as requestBody
-    static JsonNode createHttpRequest(HttpMethod method, String requestBody) throws IOException, RuntimeException {
-        HttpClient client = HttpClient.newHttpClient();
-
-        // Create HTTP request builder object
-        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                .uri(URI.create("https://api.agora.io/dev/v1/kicking-rule"))
-                .header("Content-Type", "application/json")
-                .header("Authorization", authorizationHeader);
-
-        switch (method) {
-            case GET -> {
-                requestBuilder.uri(URI.create("https://api.agora.io/dev/v1/kicking-rule?appid=" + appId));
-                requestBuilder.GET();
-            }
-            case DELETE -> {
-                HttpRequest.BodyPublisher requestBodyPublisher = HttpRequest.BodyPublishers.ofString(requestBody);
-                requestBuilder.method("DELETE", requestBodyPublisher);
-            }
-            case POST -> requestBuilder.POST(HttpRequest.BodyPublishers.ofString(requestBody));
-            default -> throw new IllegalArgumentException("HTTP method is not allowed " + method);
-        }
-        HttpRequest request = requestBuilder.build();
+    static CompletableFuture<JsonNode> sendHttpRequest(HttpMethod method, String requestBody) {
+        URI uri = method == HttpMethod.GET ? URI.create(kickingRuleUri + "?appid=" + appId) : URI.create(kickingRuleUri);
+        return client.send(method, uri, requestBody);
+    }
 
-        // Send HTTP request
-        HttpResponse<String> response;
+    // blocking variant of sendHttpRequest, must not be called from a game thread
+    static JsonNode createHttpRequest(HttpMethod method, String requestBody) throws IOException, RuntimeException {
         try {
-            response = client.send(request,
-                    HttpResponse.BodyHandlers.ofString());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException(e);
+            return sendHttpRequest(method, requestBody).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
         }
-
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readTree(response.body());
     }
+
     // gets all kicking rules
     public static JsonNode getRules() throws IOException, RuntimeException {
         return createHttpRequest(HttpMethod.GET, "").get("rules");
     }
 
-    //deletes rules that match with provided filter for Reason and Player. If no player provided all rules by given Reason are deleted.
-    public static void deleteRules(Reason reason, String cname) {
-        JsonNode allRules;
-        try {
-            allRules = getRules();
-        } catch (IOException | RuntimeException e) {
-            System.err.println("Failed to get rules in deleteRules:");
-            e.printStackTrace();
-            return;
-        }
-        List<JsonNode> reasonRules = StreamSupport.stream(allRules.spliterator(), false)
-                .filter(r -> r.get("reason").asInt() == reason.ordinal() + 1 && Objects.equals(r.get("cname").asText(), cname))
-                .map(JsonNode.class::cast)
-                .collect(Collectors.toList());
-
-        ObjectMapper objectMapper = new ObjectMapper();
-        for (JsonNode rule : reasonRules) {
-            String requestBody;
-            try {
-                requestBody = objectMapper.writeValueAsString(Map.of("appid", appId, "id", String.valueOf(rule.get("id"))));
-                createHttpRequest(HttpMethod.DELETE, requestBody);
-            } catch (IOException | RuntimeException e) {
-                System.err.println("Failed to delete rule in deleteRules:");
-                e.printStackTrace();
-            }
+    // Requests of one channel run in the order they were made, so a day's rule deletion cannot overtake the night's kicks.
+    // The returned future completes once the request is done; failures are logged, not rethrown.
+    private static CompletableFuture<Void> enqueue(String cname, String description, Supplier<CompletableFuture<?>> request) {
+        CompletableFuture<Void> tail = channelTails.compute(cname, (c, previous) ->
+            (previous == null ? CompletableFuture.<Void>completedFuture(null) : previous)
+                .thenCompose(v -> request.get())
+                .handle((result, e) -> {
+                    if (e != null) {
+                        log.error("Failed to {} in channel {}", description, cname, e);
+                    }
+                    return null;
+                }));
+        tail.whenComplete((v, e) -> channelTails.remove(cname, tail));
+        return tail;
+    }
+
+    // Deletes the given rules, DELETE_BATCH_SIZE at a time in parallel. A failed deletion does not stop the others.
+    // Completes with the ids of the rules whose deletion failed, never exceptionally.
+    static CompletableFuture<List<Long>> deleteRulesById(List<Long> ruleIds, Function<Long, CompletableFuture<?>> delete) {
+        List<Long> failed = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> deleted = CompletableFuture.completedFuture(null);
+        for (int from = 0; from < ruleIds.size(); from += DELETE_BATCH_SIZE) {
+            List<Long> batch = ruleIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, ruleIds.size()));
+            deleted = deleted.thenCompose(v -> CompletableFuture.allOf(batch.stream()
+                .map(ruleId -> deleteRuleById(ruleId, delete, failed))
+                .toArray(CompletableFuture[]::new)));
         }
+        return deleted.thenApply(v -> List.copyOf(failed));
     }
-    public static void deleteAllRules(String cname) {
-        JsonNode allRules;
+
+    private static CompletableFuture<Void> deleteRuleById(long ruleId, Function<Long, CompletableFuture<?>> delete, List<Long> failed) {
+        CompletableFuture<?> request;
         try {
-            allRules = getRules();
-        } catch (IOException | RuntimeException e) {
-            System.err.println("Failed to get rules in deleteAllRules:");
-            e.printStackTrace();
-            return;
+            request = delete.apply(ruleId);
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
         }
-        List<JsonNode> reasonRules = StreamSupport.stream(allRules.spliterator(), false)
-                .filter(r -> Objects.equals(r.get("cname").asText(), cname))
-                .map(JsonNode.class::cast)
-                .collect(Collectors.toList());
-
-        ObjectMapper objectMapper = new ObjectMapper();
-        for (JsonNode rule : reasonRules) {
-            String requestBody;
-            try {
-                requestBody = objectMapper.writeValueAsString(Map.of("appid", appId, "id", String.valueOf(rule.get("id"))));
-                createHttpRequest(HttpMethod.DELETE, requestBody);
-            } catch (IOException | RuntimeException e) {
-                System.err.println("Failed to delete rule in deleteAllRules:");
-                e.printStackTrace();
+        return request.handle((response, e) -> {
+            if (e != null) {
+                log.warn("Failed to delete kicking rule {}", ruleId, e);
+                failed.add(ruleId);
             }
-            
-        }
+            return null;
+        });
     }
-    //creates "join_channel" ban for Player. Shall be used to kick villagers from channel during night
-    public static void kickVillager(Player player, String cname) {
-        String requestBody;
+
+    private static CompletableFuture<JsonNode> deleteRule(long ruleId) {
+        return sendHttpRequest(HttpMethod.DELETE, createDeleteRequestBody(ruleId));
+    }
+
+    private static String createDeleteRequestBody(long ruleId) {
         try {
-            requestBody = createRequestBody(Optional.of(player), Optional.of(cname), "join_channel", Reason.KICK_VILLAGER);
-            createHttpRequest(HttpMethod.POST, requestBody);
+            return objectMapper.writeValueAsString(Map.of("appid", appId, "id", String.valueOf(ruleId)));
         } catch (IOException e) {
-            System.err.println("Failed to kick villager in kickVillager:");
-            e.printStackTrace();
+            throw new UncheckedIOException(e);
         }
     }
 
+    // Rules left over from before a restart are unknown to the registry, so they are found by listing all rules once.
+    // Channels with a rule creation in flight are skipped, since the listing may contain that rule before its id is registered.
+    public static CompletableFuture<Void> reconcile() {
+        Set<Integer> reasonCodes = EnumSet.allOf(Reason.class).stream().map(r -> r.ordinal() + 1).collect(Collectors.toSet());
+        return sendHttpRequest(HttpMethod.GET, "").thenCompose(response -> deleteRulesById(
+            StreamSupport.stream(response.get("rules").spliterator(), false)
+                .filter(r -> reasonCodes.contains(r.get("reason").asInt()))
+                .filter(r -> !registry.isCreating(r.get("cname").asText()))
+                .filter(r -> !registry.contains(r.get("cname").asText(), r.get("id").asLong()))
+                .map(r -> r.get("id").asLong())
+                .toList(), Agora::deleteRule))
+            .whenComplete((failed, e) -> {
+                if (e != null) {
+                    log.error("Failed to reconcile kicking rules", e);
+                } else if (!failed.isEmpty()) {
+                    log.error("Failed to delete {} left over kicking rules", failed.size());
+                }
+            })
+            .thenApply(failed -> null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    //deletes the rules of the channel that were created for the given reason
+    public static CompletableFuture<Void> deleteRules(Reason reason, String cname) {
+        return enqueue(cname, "delete rules", () -> deleteRegisteredRules(cname, reason));
+    }
+
+    // rules whose deletion failed are registered again, so the next deletion of the channel retries them
+    static CompletableFuture<Void> deleteRegisteredRules(String cname, Reason reason) {
+        return registry.deleteRules(cname, reason, ruleIds -> deleteRulesById(ruleIds, Agora::deleteRule))
+            .thenCompose(failed -> failed.isEmpty()
+                ? CompletableFuture.<Void>completedFuture(null)
+                : CompletableFuture.<Void>failedFuture(new IOException(String.format("Failed to delete %d kicking rules, kept them for a retry", failed.size()))));
+    }
+
+    // collects the rule changes of one stage transition, so they can be sent together
+    public static KickingRuleBatch newBatch(String cname) {
+        return new KickingRuleBatch(cname);
+    }
+
+    static CompletableFuture<Void> dispatch(KickingRuleBatch batch) {
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return enqueue(batch.getCname(), "apply kicking rule batch", () -> batch.run(batchParallelism, batchLatency));
+    }
+
+    // time from sending the first to finishing the last request of a batch
+    public static LatencyHistogram getBatchLatency() {
+        return batchLatency;
+    }
+
+    // time of single REST calls, including retries
+    public static LatencyHistogram getCallLatency() {
+        return client.getLatency();
+    }
+
+    public static long getCallFailures() {
+        return client.getFailures();
+    }
+
+    @Value("${agora.batch-parallelism:8}")
+    public void setBatchParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Batch parallelism must be at least 1.");
+        }
+        batchParallelism = parallelism;
+    }
+
+    public static CompletableFuture<Void> deleteAllRules(String cname) {
+        return enqueue(cname, "delete all rules", () -> CompletableFuture.allOf(EnumSet.allOf(Reason.class).stream()
+            .map(reason -> deleteRegisteredRules(cname, reason))
+            .toArray(CompletableFuture[]::new)));
+    }
+
+    //creates "join_channel" ban for Player. Shall be used to kick villagers from channel during night
+    public static CompletableFuture<Void> kickVillager(Player player, String cname) {
+        return enqueue(cname, "kick villager", () -> createRule(player, cname, "join_channel", Reason.KICK_VILLAGER));
+    }
+
     //creates "publish_audio" ban for player who died and should be muted in death view.
-    public static void muteDeadPlayer(Player player, String cname) {
+    public static CompletableFuture<Void> muteDeadPlayer(Player player, String cname) {
+        return enqueue(cname, "mute dead player", () -> createRule(player, cname, "publish_audio", Reason.MUTE_DEAD));
+    }
+
+    // creates the rule and records its id, so it can later be deleted without listing all rules
+    static CompletableFuture<Void> createRule(Player player, String cname, String privilege, Reason reason) {
+        String requestBody;
         try {
-            String requestBody = createRequestBody(Optional.of(player), Optional.of(cname), "publish_audio", Reason.MUTE_DEAD);
-            createHttpRequest(HttpMethod.POST, requestBody);    
+            requestBody = createRequestBody(Optional.of(player), Optional.of(cname), privilege, reason);
         } catch (IOException e) {
-            System.err.println("Failed to mute dead player in muteDeadPlayer:");
-            e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
         }
+        registry.beginCreation(cname);
+        return sendHttpRequest(HttpMethod.POST, requestBody)
+            .thenAccept(response -> {
+                if (response.hasNonNull("id")) {
+                    registry.register(cname, reason, response.get("id").asLong());
+                } else {
+                    log.warn("Agora did not return the id of the created rule: {}", response);
+                }
+            })
+            .exceptionallyCompose(e -> registerCreatedRules(player, cname, reason)
+                .handle((v, lookupFailure) -> {
+                    if (lookupFailure != null) {
+                        log.error("Failed to look up the rules of a failed rule creation in channel {}", cname, lookupFailure);
+                    }
+                    return null;
+                })
+                .thenCompose(v -> CompletableFuture.<Void>failedFuture(e)))
+            .whenComplete((v, e) -> registry.endCreation(cname));
+    }
+
+    // A failed POST may still have created the rule at Agora, e.g. if the response timed out, so the matching rules are registered.
+    private static CompletableFuture<Void> registerCreatedRules(Player player, String cname, Reason reason) {
+        return sendHttpRequest(HttpMethod.GET, "").thenAccept(response -> StreamSupport.stream(response.path("rules").spliterator(), false)
+            .filter(r -> r.path("cname").asText().equals(cname))
+            .filter(r -> r.path("uid").asLong() == player.getId())
+            .filter(r -> r.path("reason").asInt() == reason.ordinal() + 1)
+            .map(r -> r.get("id").asLong())
+            .filter(ruleId -> !registry.contains(cname, ruleId))
+            .forEach(ruleId -> registry.register(cname, reason, ruleId)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Non-blocking client for the Agora REST API.
+ * All requests share one HTTP/2 client, at most a fixed number of them are in flight,
+ * and failed attempts are retried with exponential backoff.
+ * Responses are handled on the client's own threads, never on the thread that sent the request.
+ */
+public class AgoraClient {
+    private static final Logger log = LoggerFactory.getLogger(AgoraClient.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final HttpClient httpClient;
+    private final Executor executor;
+    private final String authorizationHeader;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @pre maxConcurrentRequests > 0 && maxRetries >= 0
+     */
+    public AgoraClient(String authorizationHeader, int maxConcurrentRequests, Duration requestTimeout, int maxRetries, Duration initialBackoff) {
+        this.executor = Executors.newFixedThreadPool(maxConcurrentRequests, new AgoraThreadFactory());
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(requestTimeout)
+            .executor(executor)
+            .build();
+        this.authorizationHeader = authorizationHeader;
+        this.requestTimeout = requestTimeout;
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.permits = new Semaphore(maxConcurrentRequests);
+    }
+
+    /**
+     * Sends the request once a slot is free and retries it on connection failures, timeouts and 5xx or 429 responses.
+     * A POST is not idempotent, so it is only retried if it cannot have been processed: on connect failures, 429 and 503.
+     * @param requestBody ignored for GET
+     * @return the parsed response body, or an IOException if the last attempt failed
+     */
+    public CompletableFuture<JsonNode> send(HttpMethod method, URI uri, String requestBody) {
+        HttpRequest request = createRequest(method, uri, requestBody);
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+        waiting.add(() -> attempt(request, 0, result));
+        dispatch();
+        return result.whenComplete((response, e) -> {
+            latency.record(System.nanoTime() - start);
+            if (e != null) {
+                failures.increment();
+            }
+            release();
+        });
+    }
+
+    /**
+     * @return time from send until the last attempt completed, including waiting for a slot and retries
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return number of requests that failed after their last retry
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    private HttpRequest createRequest(HttpMethod method, URI uri, String requestBody) {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+            .uri(uri)
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/json")
+            .header("Authorization", authorizationHeader);
+
+        switch (method) {
+            case GET -> requestBuilder.GET();
+            case DELETE -> requestBuilder.method("DELETE", HttpRequest.BodyPublishers.ofString(requestBody));
+            case POST -> requestBuilder.POST(HttpRequest.BodyPublishers.ofString(requestBody));
+            default -> throw new IllegalArgumentException("HTTP method is not allowed " + method);
+        }
+        return requestBuilder.build();
+    }
+
+    private void dispatch() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+            } else {
+                executor.execute(next);
+            }
+        }
+    }
+
+    private void release() {
+        permits.release();
+        dispatch();
+    }
+
+    private void attempt(HttpRequest request, int retry, CompletableFuture<JsonNode> result) {
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenCompleteAsync((response, e) -> {
+            Throwable failure = e instanceof CompletionException ? e.getCause() : e;
+            boolean retryable = failure != null ? isRetryable(request, failure) : isRetryable(request, response.statusCode());
+            if (retryable && retry < maxRetries) {
+                long backoffMillis = initialBackoff.toMillis() << retry;
+                log.warn("Agora request {} {} failed, retrying in {} ms", request.method(), request.uri(), backoffMillis);
+                Executor delayed = CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS, executor);
+                delayed.execute(() -> attempt(request, retry + 1, result));
+            } else if (failure != null) {
+                result.completeExceptionally(failure);
+            } else if (retryable || isRetryable(response.statusCode())) {
+                // a POST answered with a server error is not retried, but it still failed
+                result.completeExceptionally(new IOException(String.format("Agora responded with status %d after %d retries", response.statusCode(), retry)));
+            } else {
+                complete(response, result);
+            }
+        }, executor);
+    }
+
+    private static boolean isRetryable(HttpRequest request, Throwable failure) {
+        if (isIdempotent(request)) {
+            return failure instanceof IOException;
+        }
+        return failure instanceof ConnectException || failure instanceof HttpConnectTimeoutException;
+    }
+
+    private static boolean isRetryable(HttpRequest request, int statusCode) {
+        if (isIdempotent(request)) {
+            return isRetryable(statusCode);
+        }
+        return statusCode == SERVICE_UNAVAILABLE || statusCode == TOO_MANY_REQUESTS;
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode >= 500 || statusCode == TOO_MANY_REQUESTS;
+    }
+
+    private static boolean isIdempotent(HttpRequest request) {
+        return !request.method().equals("POST");
+    }
+
+    private static void complete(HttpResponse<String> response, CompletableFuture<JsonNode> result) {
+        try {
+            result.complete(objectMapper.readTree(response.body()));
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static class AgoraThreadFactory implements ThreadFactory {
+        private static final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "agora-client-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
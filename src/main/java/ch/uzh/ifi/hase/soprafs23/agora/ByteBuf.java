@@ -10,9 +10,17 @@ public class ByteBuf {
  /**
  * Created by Li on 10/1/2016.
  */
-    ByteBuffer buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+    static final int CAPACITY = 1024;
+
+    ByteBuffer buffer;
 
     public ByteBuf() {
+        this(ByteBuffer.allocate(CAPACITY));
+    }
+
+    // writes into the given buffer from its current position, e.g. a cleared buffer that is reused
+    ByteBuf(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
     }
 
     public ByteBuf(byte[] bytes) {
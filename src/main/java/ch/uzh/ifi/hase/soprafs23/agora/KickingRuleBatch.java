@@ -0,0 +1,108 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.uzh.ifi.hase.soprafs23.constant.Reason;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+
+/**
+ * Kicking rule changes of one channel for one stage transition.
+ * Dispatched together, deletions first, so every rule of the transition is applied at about the same time.
+ */
+public class KickingRuleBatch {
+    private static final Logger log = LoggerFactory.getLogger(KickingRuleBatch.class);
+
+    private final String cname;
+    private final List<Supplier<CompletableFuture<Void>>> deletions = new ArrayList<>();
+    private final List<Supplier<CompletableFuture<Void>>> creations = new ArrayList<>();
+
+    KickingRuleBatch(String cname) {
+        this.cname = cname;
+    }
+
+    public String getCname() {
+        return cname;
+    }
+
+    public void kickVillager(Player player) {
+        addCreation(() -> Agora.createRule(player, cname, "join_channel", Reason.KICK_VILLAGER));
+    }
+
+    public void muteDeadPlayer(Player player) {
+        addCreation(() -> Agora.createRule(player, cname, "publish_audio", Reason.MUTE_DEAD));
+    }
+
+    public void deleteRules(Reason reason) {
+        addDeletion(() -> Agora.deleteRegisteredRules(cname, reason));
+    }
+
+    public boolean isEmpty() {
+        return deletions.isEmpty() && creations.isEmpty();
+    }
+
+    public int size() {
+        return deletions.size() + creations.size();
+    }
+
+    /**
+     * Sends the batch after the earlier requests of the channel.
+     */
+    public CompletableFuture<Void> dispatch() {
+        return Agora.dispatch(this);
+    }
+
+    void addDeletion(Supplier<CompletableFuture<Void>> deletion) {
+        deletions.add(deletion);
+    }
+
+    void addCreation(Supplier<CompletableFuture<Void>> creation) {
+        creations.add(creation);
+    }
+
+    /**
+     * Runs the deletions and then the creations, at most parallelism requests at a time, and records how long it took.
+     * A failed request is logged and does not stop the others.
+     * @pre parallelism > 0
+     */
+    CompletableFuture<Void> run(int parallelism, LatencyHistogram latency) {
+        long start = System.nanoTime();
+        return runAll(deletions, parallelism)
+            .thenCompose(v -> runAll(creations, parallelism))
+            .whenComplete((v, e) -> latency.record(System.nanoTime() - start));
+    }
+
+    private CompletableFuture<Void> runAll(List<Supplier<CompletableFuture<Void>>> requests, int parallelism) {
+        AtomicInteger next = new AtomicInteger();
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, requests.size())];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = runNext(requests, next);
+        }
+        return CompletableFuture.allOf(workers);
+    }
+
+    private CompletableFuture<Void> runNext(List<Supplier<CompletableFuture<Void>>> requests, AtomicInteger next) {
+        int index = next.getAndIncrement();
+        if (index >= requests.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> request;
+        try {
+            request = requests.get(index).get();
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+        return request
+            .exceptionally(e -> {
+                log.error("Kicking rule request in channel {} failed", cname, e);
+                return null;
+            })
+            .thenCompose(v -> runNext(requests, next));
+    }
+}
@@ -0,0 +1,83 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import ch.uzh.ifi.hase.soprafs23.constant.Reason;
+
+/**
+ * Ids of the kicking rules this server created, per channel and reason.
+ * Lets rules be deleted by id instead of listing every rule of the app.
+ */
+public class KickingRuleRegistry {
+    private final Map<String, Map<Reason, List<Long>>> rulesByChannel = new HashMap<>();
+    private final Map<String, Integer> creationsByChannel = new HashMap<>();
+
+    public synchronized void register(String cname, Reason reason, long ruleId) {
+        rulesByChannel.computeIfAbsent(cname, c -> new EnumMap<>(Reason.class))
+            .computeIfAbsent(reason, r -> new ArrayList<>())
+            .add(ruleId);
+    }
+
+    /**
+     * Removes the rules of the channel with the given reason from the registry.
+     * @return ids of the removed rules
+     */
+    public synchronized List<Long> removeRules(String cname, Reason reason) {
+        Map<Reason, List<Long>> rules = rulesByChannel.get(cname);
+        if (rules == null) {
+            return List.of();
+        }
+        List<Long> removed = rules.remove(reason);
+        if (rules.isEmpty()) {
+            rulesByChannel.remove(cname);
+        }
+        return removed == null ? List.of() : removed;
+    }
+
+    /**
+     * Removes the rules of the channel with the given reason from the registry and deletes them.
+     * Rules whose deletion failed are registered again, so the next deletion retries them.
+     * @param delete deletes the given rules and completes with the ids whose deletion failed
+     * @return ids whose deletion failed
+     */
+    public CompletableFuture<List<Long>> deleteRules(String cname, Reason reason, Function<List<Long>, CompletableFuture<List<Long>>> delete) {
+        List<Long> removed = removeRules(cname, reason);
+        if (removed.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return delete.apply(removed).thenApply(failed -> {
+            failed.forEach(ruleId -> register(cname, reason, ruleId));
+            return failed;
+        });
+    }
+
+    public synchronized boolean contains(String cname, long ruleId) {
+        Map<Reason, List<Long>> rules = rulesByChannel.get(cname);
+        return rules != null && rules.values().stream().anyMatch(ids -> ids.contains(ruleId));
+    }
+
+    /**
+     * Marks a rule creation of the channel as in flight, until {@link #endCreation(String)} is called for it.
+     * A rule may already exist at Agora before its id is registered.
+     */
+    public synchronized void beginCreation(String cname) {
+        creationsByChannel.merge(cname, 1, Integer::sum);
+    }
+
+    /**
+     * @pre beginCreation(cname) was called before
+     */
+    public synchronized void endCreation(String cname) {
+        creationsByChannel.computeIfPresent(cname, (c, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public synchronized boolean isCreating(String cname) {
+        return creationsByChannel.containsKey(cname);
+    }
+}
@@ -0,0 +1,90 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Lock-free latency histogram with power-of-two millisecond buckets.
+ * Bucket 0 counts latencies below 1 ms, bucket i those below 2^i ms, the last bucket everything above.
+ * Listeners see every recorded latency, e.g. to feed a metrics timer that decays old samples.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 20;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+        int bucket = millis == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        listeners.forEach(listener -> listener.accept(nanos));
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public double getMeanMillis() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : totalNanos.get() / 1e6 / recorded;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * @return upper bound in milliseconds of the bucket, infinite for the last one
+     */
+    public static double getBucketUpperBoundMillis(int bucket) {
+        return bucket == BUCKETS - 1 ? Double.POSITIVE_INFINITY : 1L << bucket;
+    }
+
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * @pre 0 < quantile <= 1
+     * @return upper bound in milliseconds of the bucket holding the quantile, 0 if nothing was recorded
+     */
+    public double getQuantileUpperBoundMillis(double quantile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && total > 0; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return getBucketUpperBoundMillis(i);
+            }
+        }
+        return 0;
+    }
+}
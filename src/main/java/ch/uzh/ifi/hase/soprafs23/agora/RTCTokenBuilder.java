@@ -8,6 +8,10 @@ public class RTCTokenBuilder {
     private static String appCertificate = "8214500e1ebd4e10bcd411dd4df44395";
     private static int expirationTimeInSeconds = 7200;
 
+    public static int getExpirationTimeInSeconds() {
+        return expirationTimeInSeconds;
+    }
+
     public String buildTokenWithUserAccount(String channelName, String account, VoiceChatRole role) {
 
         int privilegeTs = (int)(System.currentTimeMillis() / 1000 + expirationTimeInSeconds);
@@ -5,27 +5,53 @@ import javax.crypto.spec.SecretKeySpec;
 
 import org.apache.commons.codec.binary.Base64;
 
+import java.nio.ByteBuffer;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.zip.CRC32;
 public class Utils {
     public static final long HMAC_SHA256_LENGTH = 32;
     public static final int VERSION_LENGTH = 3;
     public static final int APP_ID_LENGTH = 32;
 
+    // Mac is not cheap to create and not thread-safe, so a few are pooled.
+    // A pool instead of thread-locals, since with virtual threads every request runs on a new thread.
+    private static final int POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
+    private static final BlockingQueue<KeyedMac> hmacSha256 = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final BlockingQueue<ByteBuffer> packBuffers = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final SecureRandom random = new SecureRandom();
+
+    private record KeyedMac(String key, Mac mac) {}
+
     public static byte[] hmacSign(String keyString, byte[] msg) throws InvalidKeyException, NoSuchAlgorithmException {
-        SecretKeySpec keySpec = new SecretKeySpec(keyString.getBytes(), "HmacSHA256");
-        Mac mac = Mac.getInstance("HmacSHA256");
-        mac.init(keySpec);
-        return mac.doFinal(msg);
+        KeyedMac keyedMac = hmacSha256.poll();
+        if (keyedMac == null || !keyedMac.key().equals(keyString)) {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(keyString.getBytes(), "HmacSHA256"));
+            keyedMac = new KeyedMac(keyString, mac);
+        }
+        // doFinal resets the mac, so it is ready for the next message with the same key
+        byte[] signature = keyedMac.mac().doFinal(msg);
+        // dropped if the pool is full
+        hmacSha256.offer(keyedMac);
+        return signature;
     }
 
     public static byte[] pack(PackableEx packableEx) {
-        ByteBuf buffer = new ByteBuf();
+        ByteBuffer reused = packBuffers.poll();
+        if (reused == null) {
+            reused = ByteBuffer.allocate(ByteBuf.CAPACITY);
+        }
+        reused.clear();
+        ByteBuf buffer = new ByteBuf(reused);
         packableEx.marshal(buffer);
-        return buffer.asBytes();
+        byte[] packed = buffer.asBytes();
+        packBuffers.offer(reused);
+        return packed;
     }
 
     public static void unpack(byte[] data, PackableEx packableEx) {
@@ -59,7 +85,7 @@ public class Utils {
     }
 
     public static int randomInt() {
-        return new SecureRandom().nextInt();
+        return random.nextInt();
     }
 
     public static boolean isUUID(String uuid) {
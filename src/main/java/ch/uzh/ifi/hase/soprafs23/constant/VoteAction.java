@@ -0,0 +1,6 @@
+package ch.uzh.ifi.hase.soprafs23.constant;
+
+public enum VoteAction {
+    ADD,
+    REMOVE
+}
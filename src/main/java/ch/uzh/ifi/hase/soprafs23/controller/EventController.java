@@ -0,0 +1,57 @@
+package ch.uzh.ifi.hase.soprafs23.controller;
+
+import static ch.uzh.ifi.hase.soprafs23.service.LobbyService.LOBBYID_PATHVARIABLE;
+import static ch.uzh.ifi.hase.soprafs23.service.UserService.USERAUTH_HEADER;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.uzh.ifi.hase.soprafs23.entity.User;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.service.GameEventService;
+import ch.uzh.ifi.hase.soprafs23.service.LobbyService;
+import ch.uzh.ifi.hase.soprafs23.service.UserService;
+
+/**
+ * Streams lobby and game updates, replacing repeated GETs on lobby, game and poll.
+ */
+@RestController
+public class EventController {
+    private final UserService userService;
+    private final LobbyService lobbyService;
+    private final GameEventService gameEventService;
+
+    public EventController(UserService userService, LobbyService lobbyService, GameEventService gameEventService) {
+        this.userService = userService;
+        this.lobbyService = lobbyService;
+        this.gameEventService = gameEventService;
+    }
+
+    /**
+     * The token can also be passed as query parameter, since the EventSource of browsers cannot set headers.
+     */
+    @GetMapping(value = "/lobbies/{lobbyId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(value = USERAUTH_HEADER, required = false) String token,
+                                @RequestParam(value = USERAUTH_HEADER, required = false) String tokenParameter,
+                                @PathVariable(LOBBYID_PATHVARIABLE) Long lobbyId) {
+        if (token == null) {
+            token = tokenParameter;
+        }
+        if (token == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authorization failed. No token was given.");
+        }
+        User user = userService.getUserByToken(token);
+        Lobby lobby = lobbyService.getLobbyById(lobbyId);
+        lobbyService.validateUserIsInLobby(user, lobby);
+        Player player = lobbyService.getPlayerOfUser(user, lobby);
+        return gameEventService.subscribe(lobby, player);
+    }
+}
@@ -3,17 +3,24 @@ package ch.uzh.ifi.hase.soprafs23.controller;
 import static ch.uzh.ifi.hase.soprafs23.service.LobbyService.LOBBYID_PATHVARIABLE;
 import static ch.uzh.ifi.hase.soprafs23.service.UserService.USERAUTH_HEADER;
 
+import java.util.List;
+
 import ch.uzh.ifi.hase.soprafs23.rest.dto.FractionGetDTO;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ch.uzh.ifi.hase.soprafs23.entity.User;
 import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
 import ch.uzh.ifi.hase.soprafs23.logic.game.Scheduler;
@@ -24,6 +31,8 @@ import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.GameGetDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.PollGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.VoteChangeDTO;
+import ch.uzh.ifi.hase.soprafs23.service.GameEventService;
 import ch.uzh.ifi.hase.soprafs23.service.GameService;
 import ch.uzh.ifi.hase.soprafs23.service.LobbyService;
 import ch.uzh.ifi.hase.soprafs23.service.UserService;
@@ -33,11 +42,13 @@ public class GameController {
     private final UserService userService;
     private final LobbyService lobbyService;
     private final GameService gameService;
+    private final GameEventService gameEventService;
 
-    public GameController(UserService userService, LobbyService lobbyService, GameService gameService) {
+    public GameController(UserService userService, LobbyService lobbyService, GameService gameService, GameEventService gameEventService) {
         this.userService = userService;
         this.lobbyService = lobbyService;
         this.gameService = gameService;
+        this.gameEventService = gameEventService;
     }
 
     @PostMapping("/games/{lobbyId}")
@@ -51,41 +62,51 @@ public class GameController {
         lobbyService.closeLobby(lobby);
         lobbyService.reInstatiatePlayers(lobby);
         Game game = gameService.createNewGame(lobby);
+        gameEventService.watchGame(game);
         lobbyService.instantiateRoles(lobby, game);
         lobbyService.assignRoles(lobby);
         Scheduler.getInstance().schedule(() -> gameService.startGame(game), 10);
     }
 
+    /**
+     * Answers 304 Not Modified without building the DTO if the client's If-None-Match is current.
+     * With since, only actions with a higher sequence are returned.
+     */
     @GetMapping("/games/{lobbyId}")
-    @ResponseStatus(HttpStatus.OK)
     @ResponseBody
-    public GameGetDTO getGame(@RequestHeader(USERAUTH_HEADER) String token, @PathVariable(LOBBYID_PATHVARIABLE) Long lobbyId) {
+    public ResponseEntity<GameGetDTO> getGame(@RequestHeader(USERAUTH_HEADER) String token, @PathVariable(LOBBYID_PATHVARIABLE) Long lobbyId,
+                                              @RequestParam(value = "since", defaultValue = "0") long since, WebRequest request) {
         User user = userService.getUserByToken(token);
         Lobby lobby = lobbyService.getLobbyById(lobbyId);
         lobbyService.validateUserIsInLobby(user, lobby);
         Player player = lobbyService.getPlayerOfUser(user, lobby);
         Game game = gameService.getGame(lobby);
         gameService.validateGameStarted(game);
-        GameGetDTO gameGetDTO = gameService.toGameGetDTO(game);
-        return gameService.mergePlayerPollCommandsToGameGetDTO(gameGetDTO, player);
+        // also sets the ETag header
+        if (request.checkNotModified(gameService.getGameETag(game, player))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        GameGetDTO gameGetDTO = gameService.toGameGetDTO(game, since);
+        return ResponseEntity.ok(gameService.mergePlayerPollCommandsToGameGetDTO(gameGetDTO, player, since));
     }
 
+    /**
+     * Answers 304 Not Modified without building the DTO if the client's If-None-Match is current.
+     */
     @GetMapping("/games/{lobbyId}/polls")
-    @ResponseStatus(HttpStatus.OK)
     @ResponseBody
-    public PollGetDTO getPoll(@RequestHeader(USERAUTH_HEADER) String token, @PathVariable(LOBBYID_PATHVARIABLE) Long lobbyId) {
+    public ResponseEntity<PollGetDTO> getPoll(@RequestHeader(USERAUTH_HEADER) String token, @PathVariable(LOBBYID_PATHVARIABLE) Long lobbyId, WebRequest request) {
         User user = userService.getUserByToken(token);
         Lobby lobby = lobbyService.getLobbyById(lobbyId);
         lobbyService.validateUserIsInLobby(user, lobby);
         Game game = gameService.getGame(lobby);
         gameService.validateGameStarted(game);
         Poll poll = gameService.getCurrentPoll(game);
-        PollGetDTO pollGetDTO = gameService.toPollGetDTO(poll);
-        if (gameService.isPollParticipant(poll, user)) {
-            return pollGetDTO;
-        } else {
-            return gameService.censorPollGetDTO(pollGetDTO);
+        boolean participant = gameService.isPollParticipant(poll, user);
+        if (request.checkNotModified(gameService.getPollETag(game, poll, participant))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
         }
+        return ResponseEntity.ok(gameService.toPollGetDTO(game, poll, participant));
     }
 
     @GetMapping("/games/{lobbyId}/winner")
@@ -113,7 +134,7 @@ public class GameController {
         gameService.validateParticipant(poll, user);
         PollParticipant participant = gameService.getParticipant(poll, user);
         PollOption option = gameService.getPollOption(poll, optionId);
-        gameService.castVote(poll, participant, option);
+        gameService.castVote(game, poll, participant, option);
     }
 
     @DeleteMapping("/games/{lobbyId}/votes/{optionId}")
@@ -129,7 +150,22 @@ public class GameController {
         gameService.validateParticipant(poll, user);
         PollParticipant participant = gameService.getParticipant(poll, user);
         PollOption option = gameService.getPollOption(poll, optionId);
-        gameService.removeVote(poll, participant, option);
+        gameService.removeVote(game, poll, participant, option);
+    }
+
+    @PatchMapping("/games/{lobbyId}/votes")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @ResponseBody
+    public void changeVotes(@RequestHeader(USERAUTH_HEADER) String token, @PathVariable(LOBBYID_PATHVARIABLE) Long lobbyId, @RequestBody List<VoteChangeDTO> voteChanges) {
+        User user = userService.getUserByToken(token);
+        Lobby lobby = lobbyService.getLobbyById(lobbyId);
+        lobbyService.validateUserIsInLobby(user, lobby);
+        Game game = gameService.getGame(lobby);
+        gameService.validateGameStarted(game);
+        Poll poll = gameService.getCurrentPoll(game);
+        gameService.validateParticipant(poll, user);
+        PollParticipant participant = gameService.getParticipant(poll, user);
+        gameService.changeVotes(game, poll, participant, voteChanges);
     }
 
     
@@ -6,6 +6,7 @@ import static ch.uzh.ifi.hase.soprafs23.service.UserService.USERAUTH_HEADER;
 import java.util.Collection;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.RoleGetDTO;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import ch.uzh.ifi.hase.soprafs23.entity.User;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
@@ -75,14 +77,21 @@ public class LobbyController {
         }
     }
 
+    /**
+     * Answers 304 Not Modified without building the DTO if the client's If-None-Match is current.
+     */
     @GetMapping("/lobbies/{lobbyId}")
-    @ResponseStatus(HttpStatus.OK)
     @ResponseBody
-    public LobbyGetDTO getLobbyInformation(@PathVariable(LOBBYID_PATHVARIABLE) Long lobbyId, @RequestHeader(USERAUTH_HEADER) String userToken) {
+    public ResponseEntity<LobbyGetDTO> getLobbyInformation(@PathVariable(LOBBYID_PATHVARIABLE) Long lobbyId, @RequestHeader(USERAUTH_HEADER) String userToken,
+                                                           WebRequest request) {
         User user = userService.getUserByToken(userToken);
         Lobby lobby = lobbyService.getLobbyById(lobbyId);
         lobbyService.validateUserIsInLobby(user, lobby);
-        return LogicDTOMapper.convertLobbyToLobbyGetDTO(lobby);
+        // also sets the ETag header
+        if (request.checkNotModified(lobbyService.getLobbyETag(lobby))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(lobbyService.toLobbyGetDTO(lobby));
     }
 
     @GetMapping("/lobbies/{lobbyId}/roles")
@@ -1,14 +1,8 @@
 package ch.uzh.ifi.hase.soprafs23.logic.game;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Queue;
-import java.util.function.Consumer;
-import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
@@ -18,12 +12,6 @@ import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.NullPollCommand;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.StageFinishedCommand;
 import ch.uzh.ifi.hase.soprafs23.logic.role.FractionRole;
-import ch.uzh.ifi.hase.soprafs23.logic.role.Role;
-import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.DayVoter;
-import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.DoubleNightVoter;
-import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.FirstDayVoter;
-import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.NightVoter;
-import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.StageVoter;
 
 public class Game implements StageObserver, PlayerObserver{
     private Lobby lobby;
@@ -36,16 +24,37 @@ public class Game implements StageObserver, PlayerObserver{
     private boolean finished = false;
     private List<PollCommand> pollCommands = new ArrayList<>();
     private List<GameObserver> observers = new ArrayList<>();
+    private final GameMailbox mailbox;
+    private final StateVersion version = new StateVersion();
 
     /**
      * @pre lobby.getLobbySize() <= Lobby.MAX_SIZE && lobby.getLobbySize() >= Lobby.MIN_SIZE && lobby roles assigned
      * @param lobby
      */
     public Game(Lobby lobby) {
+        this(lobby, new GameMailbox());
+    }
+
+    public Game(Lobby lobby, GameMailbox mailbox) {
         this.lobby = lobby;
+        this.mailbox = mailbox;
         lobby.getPlayers().forEach(player -> player.addObserver(this));
     }
 
+    /**
+     * All mutations of this game, its stages and polls are expected to run in this mailbox.
+     */
+    public GameMailbox getMailbox() {
+        return mailbox;
+    }
+
+    /**
+     * @return version of the stage, poll count, actions and result; lobby and poll changes are versioned separately
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     public void addObserver(GameObserver observer) {
         observers.add(observer);
     }
@@ -54,19 +63,20 @@ public class Game implements StageObserver, PlayerObserver{
         // special cases
         if (stageCount == 0) {
             // first day
-            return new Stage(StageType.Day, getFirstDayVoters());
+            return new Stage(StageType.Day, lobby.getFirstDayVoterPlan());
         }
         // normal cases
         if (stageCount % 2 == 0) {
-            return new Stage(StageType.Day, getDayVoters());
+            return new Stage(StageType.Day, lobby.getDayVoterPlan());
         } else {
-            return new Stage(StageType.Night, getNightVoters());
+            return new Stage(StageType.Night, lobby.getNightVoterPlan());
         }
     }
 
     public void startGame() {
         startNextStage(calculateNextStage());
         started = true;
+        version.bump();
     }
 
     public boolean isStarted() {
@@ -76,6 +86,7 @@ public class Game implements StageObserver, PlayerObserver{
     private void startNextStage(Stage nextStage) {
         stageCount++;
         currentStage = nextStage;
+        version.bump();
         currentStage.addObserver(this);
         currentStage.startStage();
         observers.forEach(gameObserver -> gameObserver.onNewStage(this));
@@ -121,6 +132,13 @@ public class Game implements StageObserver, PlayerObserver{
         return pollCommands;
     }
 
+    /**
+     * @return List<PollCommand> appended after the given sequence
+     */
+    public List<PollCommand> getPollCommandsSince(long sequence) {
+        return PollCommand.since(pollCommands, sequence);
+    }
+
     public Poll getCurrentPoll() throws IllegalStateException{
         if (currentPoll.isEmpty()) {
             throw new IllegalStateException("No poll is currently running");
@@ -128,6 +146,10 @@ public class Game implements StageObserver, PlayerObserver{
         return currentPoll.get();
     }
 
+    public boolean hasOpenPoll() {
+        return currentPoll.filter(poll -> !poll.isFinished()).isPresent();
+    }
+
     public FractionRole getWinner() {
         if (winner.isEmpty()) {
             throw new IllegalStateException("Game is not finished yet");
@@ -164,7 +186,10 @@ public class Game implements StageObserver, PlayerObserver{
     public void onStageFinished() {
         List<PollCommand> currentStagePollCommands = new ArrayList<>(currentStage.getPollCommands());
         executeCurrentStageStageFinishedCommands(currentStagePollCommands);
-        pollCommands.addAll(filterOutNullPollCommands(currentStage.getPollCommands()));
+        List<PollCommand> stageLog = filterOutNullPollCommands(currentStage.getPollCommands());
+        stageLog.forEach(PollCommand::assignSequence);
+        pollCommands.addAll(stageLog);
+        version.bump();
         checkForWinner();
         if (!finished) {
             startNextStage(calculateNextStage());
@@ -174,6 +199,7 @@ public class Game implements StageObserver, PlayerObserver{
     private void finishGame(FractionRole winningFraction) {
         winner = Optional.of(winningFraction);
         finished = true;
+        version.bump();
         observers.stream().forEach(observer->observer.onGameFinished(this));
     }
 
@@ -181,47 +207,24 @@ public class Game implements StageObserver, PlayerObserver{
         return finished;
     }
 
-    public static Queue<Supplier<Optional<Poll>>> getVotersOfType(Collection<Role> roles, Class<? extends StageVoter> stageVoterClass, Function<Role, Supplier<Optional<Poll>>> pollFunction) {
-        return roles.stream()
-            .filter(stageVoterClass::isInstance)
-            .sorted()
-            .map(s -> pollFunction.apply(s))
-            .collect(Collectors.toCollection(LinkedList::new));
-    }
-
-    public static void forVoterRolesOfType(Collection<Role> roles, Class<? extends StageVoter> stageVoterClass, Consumer<? super Role> stageVoterClassAction) {
-        roles.stream()
-            .filter(stageVoterClass::isInstance)
-            .sorted()
-            .forEach(stageVoterClassAction);
-    }
-
-    private Queue<Supplier<Optional<Poll>>> getDayVoters() {
-        return Game.getVotersOfType(lobby.getRoles(), DayVoter.class, dayVoterRole -> ((DayVoter)dayVoterRole)::createDayPoll);
-    }
-
-    private Queue<Supplier<Optional<Poll>>> getFirstDayVoters() {
-        return Game.getVotersOfType(lobby.getRoles(), FirstDayVoter.class, firstDayVoterRole -> ((FirstDayVoter)firstDayVoterRole)::createFirstDayPoll);
-    }
-
-    private Queue<Supplier<Optional<Poll>>> getNightVoters() {
-        Queue<Supplier<Optional<Poll>>> nightVoters = new LinkedList<>();
-        Game.forVoterRolesOfType(lobby.getRoles(), NightVoter.class, nightVoterRole -> {
-            nightVoters.add(((NightVoter)nightVoterRole)::createNightPoll);
-            if (nightVoterRole instanceof DoubleNightVoter) {
-                nightVoters.add(((DoubleNightVoter)nightVoterRole)::createSecondNightPoll);
-            }
-        });
-        return nightVoters;
-    }
-
     @Override
     public void onNewPoll(Poll poll) {
         pollCount++;
         currentPoll = Optional.of(poll);
+        version.bump();
         observers.forEach(o -> o.onNewPoll(this));
     }
 
+    @Override
+    public void onPollUpdated(Poll poll) {
+        observers.forEach(o -> o.onPollUpdated(this));
+    }
+
+    @Override
+    public void onPollFinished(Poll poll) {
+        observers.forEach(o -> o.onPollFinished(this, poll));
+    }
+
     @Override
     public void onPlayerKilled_Unrevivable(Player player) {
         observers.forEach(gameObserver -> gameObserver.onPlayerDiedUnrevivable(this, player));
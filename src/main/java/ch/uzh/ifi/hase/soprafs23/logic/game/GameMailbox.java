@@ -0,0 +1,140 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serial executor owned by a game.
+ * Commands run one at a time and in submission order on a shared worker pool,
+ * so game, stage and poll state is only ever mutated by one thread at a time.
+ */
+public class GameMailbox implements Executor {
+    private static final int MAX_COMMANDS_PER_TURN = 64;
+    private static final Logger log = LoggerFactory.getLogger(GameMailbox.class);
+    private static final ThreadLocal<GameMailbox> current = new ThreadLocal<>();
+    private static final Executor sharedWorkers = Executors.newFixedThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors()),
+        new MailboxThreadFactory());
+
+    private final Executor workers;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public GameMailbox() {
+        this(sharedWorkers);
+    }
+
+    public GameMailbox(Executor workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * @return the mailbox whose command is running on the calling thread, or null
+     */
+    public static GameMailbox current() {
+        return current.get();
+    }
+
+    public boolean isCurrent() {
+        return current.get() == this;
+    }
+
+    /**
+     * Enqueues the command without waiting for it to run.
+     */
+    @Override
+    public void execute(Runnable command) {
+        commands.add(command);
+        scheduleTurn();
+    }
+
+    /**
+     * Runs the query in this mailbox and waits for its result.
+     * Runtime exceptions thrown by the query are rethrown to the caller.
+     */
+    public <T> T call(Supplier<T> query) {
+        if (isCurrent()) {
+            return query.get();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                result.complete(query.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the command in this mailbox and waits for it to finish.
+     */
+    public void run(Runnable command) {
+        call(() -> {
+            command.run();
+            return null;
+        });
+    }
+
+    private void scheduleTurn() {
+        if (scheduled.compareAndSet(false, true)) {
+            workers.execute(this::runTurn);
+        }
+    }
+
+    private void runTurn() {
+        GameMailbox previous = current.get();
+        current.set(this);
+        try {
+            Runnable command;
+            int executed = 0;
+            while (executed < MAX_COMMANDS_PER_TURN && (command = commands.poll()) != null) {
+                executed++;
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    log.error("Game command failed", e);
+                }
+            }
+        } finally {
+            current.set(previous);
+            scheduled.set(false);
+        }
+        if (!commands.isEmpty()) {
+            scheduleTurn();
+        }
+    }
+
+    private static class MailboxThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "game-mailbox-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
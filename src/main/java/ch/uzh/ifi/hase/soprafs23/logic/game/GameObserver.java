@@ -1,9 +1,15 @@
 package ch.uzh.ifi.hase.soprafs23.logic.game;
 
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
 
 public interface GameObserver {
     public void onNewPoll(Game game);
+    public void onPollUpdated(Game game);
+    /**
+     * Called before the result of the poll is executed.
+     */
+    public void onPollFinished(Game game, Poll poll);
     public void onNewStage(Game game);
     public void onGameFinished(Game game);
     public void onPlayerDiedUnrevivable(Game game, Player player);
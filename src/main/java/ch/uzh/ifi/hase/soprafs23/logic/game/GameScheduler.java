@@ -0,0 +1,14 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules game deadlines such as poll finish timers.
+ */
+public interface GameScheduler {
+    ScheduledTask schedule(Runnable command, long delay, TimeUnit unit);
+
+    default ScheduledTask schedule(Runnable command, int delaySeconds) {
+        return schedule(command, delaySeconds, TimeUnit.SECONDS);
+    }
+}
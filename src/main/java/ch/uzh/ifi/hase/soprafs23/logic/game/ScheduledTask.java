@@ -0,0 +1,25 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handle to a command scheduled with the {@link Scheduler}.
+ */
+public interface ScheduledTask {
+    /**
+     * @return true if this call prevented the command from running
+     */
+    boolean cancel();
+
+    /**
+     * Replaces the pending deadline, or re-arms the task if it already ran or was cancelled.
+     */
+    void reschedule(long delay, TimeUnit unit);
+
+    boolean isCancelled();
+
+    /**
+     * @return true if the command ran for the latest deadline
+     */
+    boolean isDone();
+}
@@ -1,25 +1,98 @@
 package ch.uzh.ifi.hase.soprafs23.logic.game;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class Scheduler {
+import ch.uzh.ifi.hase.soprafs23.VirtualThreads;
+
+/**
+ * Timer service for game deadlines.
+ * Timers are spread over several hashed wheel shards, each with its own worker thread,
+ * so a slow task only delays the timers of its own shard.
+ */
+public class Scheduler implements GameScheduler {
+    private static final long TICK_MILLIS = 100;
+    private static final int TICKS_PER_WHEEL = 512;
     private static Scheduler instance;
-    private ScheduledExecutorService executorService;
 
-    private Scheduler() {
-        executorService = Executors.newSingleThreadScheduledExecutor();
+    private final TimerWheel[] shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    // runs commands outside of mailboxes, null runs them on the shard thread
+    private final Executor callbackExecutor;
+
+    public Scheduler(int shardCount, long tickDuration, TimeUnit unit) {
+        this(shardCount, tickDuration, unit, null);
     }
 
-    public static Scheduler getInstance() {
+    /**
+     * @param callbackExecutor runs due commands that were not scheduled from a mailbox, so blocking commands do not stall the shard
+     */
+    public Scheduler(int shardCount, long tickDuration, TimeUnit unit, Executor callbackExecutor) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Scheduler needs at least one shard.");
+        }
+        shards = new TimerWheel[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new TimerWheel("scheduler-shard-" + i, tickDuration, unit, TICKS_PER_WHEEL);
+        }
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    public static synchronized Scheduler getInstance() {
         if (instance == null) {
-            instance = new Scheduler();
+            int shardCount = Math.min(8, Math.max(2, Runtime.getRuntime().availableProcessors()));
+            Executor callbackExecutor = VirtualThreads.newPerTaskExecutor("scheduler-callback-").orElse(null);
+            instance = new Scheduler(shardCount, TICK_MILLIS, TimeUnit.MILLISECONDS, callbackExecutor);
         }
         return instance;
     }
-    
-    public void schedule(Runnable command, int delaySeconds) {
-        executorService.schedule(command, delaySeconds, TimeUnit.SECONDS);
+
+    /**
+     * Commands scheduled from within a game mailbox are handed back to that mailbox when they are due,
+     * other commands go to the callback executor if there is one.
+     */
+    @Override
+    public ScheduledTask schedule(Runnable command, long delay, TimeUnit unit) {
+        GameMailbox mailbox = GameMailbox.current();
+        Runnable task;
+        if (mailbox != null) {
+            task = () -> mailbox.execute(command);
+        } else if (callbackExecutor != null) {
+            task = () -> callbackExecutor.execute(command);
+        } else {
+            task = command;
+        }
+        TimerWheel shard = shards[Math.floorMod(nextShard.getAndIncrement(), shards.length)];
+        TimerHandle handle = new TimerHandle(shard, task);
+        handle.start(delay, unit);
+        return handle;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return number of timers that have neither fired nor been cancelled
+     */
+    public long getQueueDepth() {
+        return Arrays.stream(shards).mapToLong(TimerWheel::getPending).sum();
+    }
+
+    /**
+     * @return largest delay between a deadline and the moment its timer fired, over the last firing of each shard
+     */
+    public long getLastLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(Arrays.stream(shards).mapToLong(TimerWheel::getLastLagNanos).max().orElse(0));
+    }
+
+    public long getMaxLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(Arrays.stream(shards).mapToLong(TimerWheel::getMaxLagNanos).max().orElse(0));
+    }
+
+    public void shutdown() {
+        Arrays.stream(shards).forEach(TimerWheel::stop);
     }
 }
@@ -13,21 +13,26 @@ import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
 public class Stage implements PollObserver{
     private StageType type;
     private List<StageObserver> observers = new ArrayList<>();
-    private Queue<Supplier<Optional<Poll>>> pollSupplierQueue;
+    private final VoterPlan voterPlan;
+    private int nextVoter = 0;
     private List<PollCommand> pollCommands = new ArrayList<>();
     private Poll currentPoll;
 
-    public Stage(StageType type, Queue<Supplier<Optional<Poll>>> pollSupplierQueue) {
+    public Stage(StageType type, VoterPlan voterPlan) {
         this.type = type;
-        this.pollSupplierQueue = pollSupplierQueue;
+        this.voterPlan = voterPlan;
+    }
+
+    public Stage(StageType type, Queue<Supplier<Optional<Poll>>> pollSupplierQueue) {
+        this(type, new VoterPlan(new ArrayList<>(pollSupplierQueue)));
     }
 
     private void startNextPoll() {
-        if(pollSupplierQueue.isEmpty()) {
+        if(nextVoter == voterPlan.size()) {
             finishStage();
             return;
         }
-        Optional<Poll> nextPoll = pollSupplierQueue.poll().get();
+        Optional<Poll> nextPoll = voterPlan.get(nextVoter++).get();
         if(nextPoll.isEmpty()) {
             startNextPoll();
         } else {
@@ -71,10 +76,16 @@ public class Stage implements PollObserver{
 
     @Override
     public void onPollFinished() {
+        observers.stream().forEach(s -> s.onPollFinished(currentPoll));
         PollCommand command = currentPoll.getResultCommand();
         pollCommands.add(command);
         command.execute();
         startNextPoll();
     }
+
+    @Override
+    public void onPollUpdated() {
+        observers.stream().forEach(s -> s.onPollUpdated(currentPoll));
+    }
     
 }
@@ -5,4 +5,6 @@ import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
 public interface StageObserver {
     public void onStageFinished();
     public void onNewPoll(Poll poll);
+    public void onPollUpdated(Poll poll);
+    public void onPollFinished(Poll poll);
 }
@@ -0,0 +1,21 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of a piece of state, bumped on every mutation.
+ * All versions are drawn from one clock, so a recreated game or poll never repeats a version a client has cached.
+ */
+public class StateVersion {
+    private static final AtomicLong clock = new AtomicLong();
+
+    private final AtomicLong version = new AtomicLong(clock.incrementAndGet());
+
+    public long get() {
+        return version.get();
+    }
+
+    public void bump() {
+        version.accumulateAndGet(clock.incrementAndGet(), Math::max);
+    }
+}
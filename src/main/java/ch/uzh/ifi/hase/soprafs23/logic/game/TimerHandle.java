@@ -0,0 +1,49 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ScheduledTask} backed by a {@link TimerWheel}. Only the latest deadline can fire.
+ */
+class TimerHandle implements ScheduledTask {
+    private final TimerWheel wheel;
+    private final Runnable command;
+    private volatile TimerWheel.Timeout timeout;
+    private volatile boolean cancelled = false;
+
+    TimerHandle(TimerWheel wheel, Runnable command) {
+        this.wheel = wheel;
+        this.command = command;
+    }
+
+    void start(long delay, TimeUnit unit) {
+        timeout = wheel.newTimeout(this, delay, unit);
+    }
+
+    void run() {
+        command.run();
+    }
+
+    @Override
+    public synchronized boolean cancel() {
+        cancelled = true;
+        return timeout.cancel();
+    }
+
+    @Override
+    public synchronized void reschedule(long delay, TimeUnit unit) {
+        timeout.cancel();
+        cancelled = false;
+        start(delay, unit);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return timeout.isExpired();
+    }
+}
@@ -0,0 +1,109 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded scheduler on a virtual clock, for headless simulations.
+ * Time only advances when {@link #runNext()} jumps to the next deadline, so a game plays without waiting for its timers.
+ * Commands due at the same time run in scheduling order.
+ */
+public class VirtualScheduler implements GameScheduler {
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+        Comparator.comparingLong(Entry::deadlineNanos).thenComparingLong(Entry::sequence));
+    private long nowNanos = 0;
+    private long sequence = 0;
+
+    @Override
+    public ScheduledTask schedule(Runnable command, long delay, TimeUnit unit) {
+        VirtualTask task = new VirtualTask(command);
+        task.arm(unit.toNanos(delay));
+        return task;
+    }
+
+    /**
+     * Advances the clock to the earliest pending deadline and runs its command.
+     * @return false if nothing is pending
+     */
+    public boolean runNext() {
+        Entry entry;
+        do {
+            entry = queue.poll();
+            if (entry == null) {
+                return false;
+            }
+        } while (entry.isStale());
+        nowNanos = Math.max(nowNanos, entry.deadlineNanos());
+        entry.task().run(entry.generation());
+        return true;
+    }
+
+    public long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nowNanos);
+    }
+
+    /**
+     * @return number of queued entries, including those of cancelled or rescheduled tasks not yet skipped
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private record Entry(long deadlineNanos, long sequence, VirtualTask task, int generation) {
+        boolean isStale() {
+            return task.generation != generation;
+        }
+    }
+
+    private class VirtualTask implements ScheduledTask {
+        private final Runnable command;
+        // bumped on every cancel and reschedule, so queue entries of older deadlines are skipped
+        private int generation = 0;
+        private boolean cancelled = false;
+        private boolean done = false;
+
+        VirtualTask(Runnable command) {
+            this.command = command;
+        }
+
+        void arm(long delayNanos) {
+            generation++;
+            cancelled = false;
+            done = false;
+            queue.add(new Entry(nowNanos + Math.max(0, delayNanos), sequence++, this, generation));
+        }
+
+        void run(int entryGeneration) {
+            if (entryGeneration == generation && !cancelled) {
+                done = true;
+                command.run();
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            if (cancelled || done) {
+                return false;
+            }
+            cancelled = true;
+            generation++;
+            return true;
+        }
+
+        @Override
+        public void reschedule(long delay, TimeUnit unit) {
+            arm(unit.toNanos(delay));
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+    }
+}
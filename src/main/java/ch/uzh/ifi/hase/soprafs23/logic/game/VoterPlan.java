@@ -0,0 +1,77 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.logic.role.Role;
+import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.DayVoter;
+import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.DoubleNightVoter;
+import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.FirstDayVoter;
+import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.NightVoter;
+
+/**
+ * Immutable sequence of the poll suppliers a stage asks in turn, ordered by role priority.
+ * Built once per set of roles, so every stage of the same type shares it.
+ */
+public final class VoterPlan {
+    private static final VoterPlan EMPTY = new VoterPlan(List.of());
+
+    private final List<Supplier<Optional<Poll>>> pollSuppliers;
+
+    public VoterPlan(List<Supplier<Optional<Poll>>> pollSuppliers) {
+        this.pollSuppliers = List.copyOf(pollSuppliers);
+    }
+
+    public static VoterPlan empty() {
+        return EMPTY;
+    }
+
+    public static VoterPlan forFirstDay(Collection<Role> roles) {
+        List<Supplier<Optional<Poll>>> pollSuppliers = new ArrayList<>();
+        for (Role role : sortedRoles(roles)) {
+            if (role instanceof FirstDayVoter firstDayVoter) {
+                pollSuppliers.add(firstDayVoter::createFirstDayPoll);
+            }
+        }
+        return new VoterPlan(pollSuppliers);
+    }
+
+    public static VoterPlan forDay(Collection<Role> roles) {
+        List<Supplier<Optional<Poll>>> pollSuppliers = new ArrayList<>();
+        for (Role role : sortedRoles(roles)) {
+            if (role instanceof DayVoter dayVoter) {
+                pollSuppliers.add(dayVoter::createDayPoll);
+            }
+        }
+        return new VoterPlan(pollSuppliers);
+    }
+
+    public static VoterPlan forNight(Collection<Role> roles) {
+        List<Supplier<Optional<Poll>>> pollSuppliers = new ArrayList<>();
+        for (Role role : sortedRoles(roles)) {
+            if (role instanceof NightVoter nightVoter) {
+                pollSuppliers.add(nightVoter::createNightPoll);
+                if (role instanceof DoubleNightVoter doubleNightVoter) {
+                    pollSuppliers.add(doubleNightVoter::createSecondNightPoll);
+                }
+            }
+        }
+        return new VoterPlan(pollSuppliers);
+    }
+
+    private static List<Role> sortedRoles(Collection<Role> roles) {
+        return roles.stream().sorted().toList();
+    }
+
+    public int size() {
+        return pollSuppliers.size();
+    }
+
+    public Supplier<Optional<Poll>> get(int index) {
+        return pollSuppliers.get(index);
+    }
+}
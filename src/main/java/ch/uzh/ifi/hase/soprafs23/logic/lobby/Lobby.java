@@ -1,6 +1,8 @@
 package ch.uzh.ifi.hase.soprafs23.logic.lobby;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -10,7 +12,11 @@ import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
 import ch.uzh.ifi.hase.soprafs23.logic.role.FractionRole;
 import ch.uzh.ifi.hase.soprafs23.logic.role.FractionRoleComparator;
 import ch.uzh.ifi.hase.soprafs23.logic.role.Role;
+import ch.uzh.ifi.hase.soprafs23.logic.role.RoleObserver;
+import ch.uzh.ifi.hase.soprafs23.logic.game.GameScheduler;
 import ch.uzh.ifi.hase.soprafs23.logic.game.Scheduler;
+import ch.uzh.ifi.hase.soprafs23.logic.game.StateVersion;
+import ch.uzh.ifi.hase.soprafs23.logic.game.VoterPlan;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.tiedpolldecider.RandomTiedPollDecider;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Cupid;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Hunter;
@@ -21,15 +27,28 @@ import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Werewolf;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Witch;
 
-public class Lobby {
+public class Lobby implements PlayerObserver, RoleObserver {
     private Long id;
     private Player admin;
-    private Set<Player> players;
-    private List<LobbyObserver> observers = new ArrayList<>();
+    // keyed by user id, players are equal exactly if their ids are
+    private volatile Map<Long, Player> players;
+    // immutable, replaced whenever a player joins, leaves, dies or is revived
+    private volatile List<Player> alivePlayers = List.of();
+    private List<LobbyObserver> observers = new CopyOnWriteArrayList<>();
     private Map<Class<? extends Role>, Role> roles;
-    private boolean open;
+    // immutable role lists per player, replaced whenever a role gains or loses players
+    private final Map<Player, List<Role>> rolesByPlayer = new ConcurrentHashMap<>();
+    // built once the roles are instantiated and shared by all stages of a game
+    private VoterPlan firstDayVoterPlan = VoterPlan.empty();
+    private VoterPlan dayVoterPlan = VoterPlan.empty();
+    private VoterPlan nightVoterPlan = VoterPlan.empty();
+    private volatile boolean open;
     private int partyVoteDurationSeconds = 90;
     private int singleVoteDurationSeconds = 15;
+    private final StateVersion version = new StateVersion();
+    // null means the shared wall-clock Scheduler
+    private final GameScheduler scheduler;
+    private final Random random;
 
     public static final int MIN_SIZE = 5;
     public static final int MAX_SIZE = 20;
@@ -39,12 +58,30 @@ public class Lobby {
     public static final int MAX_SINGLE_VOTE_DURATION_SECONDS = 60;
 
     public Lobby(Long id, Player admin) {
+        this(id, admin, null);
+    }
+
+    /**
+     * @param scheduler scheduler for the timers of the roles, e.g. a virtual clock in simulations
+     */
+    public Lobby(Long id, Player admin, GameScheduler scheduler) {
+        this(id, admin, scheduler, new Random());
+    }
+
+    /**
+     * @param random decides the role assignment and the ties of role polls, seeded in simulations to replay a game
+     */
+    public Lobby(Long id, Player admin, GameScheduler scheduler, Random random) {
         this.id = id;
+        this.scheduler = scheduler;
+        this.random = random;
         this.admin = admin;
-        this.players = new HashSet<>();
-        players.add(admin);
+        this.players = new ConcurrentHashMap<>();
+        players.put(admin.getId(), admin);
+        admin.addObserver(this);
         this.open = true;
         this.roles = new HashMap<>();
+        updateAlivePlayers();
     }
 
     public boolean isObserver(LobbyObserver observer) {
@@ -65,6 +102,19 @@ public class Lobby {
 
     public void setOpen(boolean open) {
         this.open = open;
+        notifyObserversUpdated();
+    }
+
+    private void notifyObserversUpdated() {
+        version.bump();
+        observers.forEach(o -> o.onLobbyUpdated(this));
+    }
+
+    /**
+     * @return version of everything shown in the lobby, including the players' alive state
+     */
+    public long getVersion() {
+        return version.get();
     }
 
     /**
@@ -72,26 +122,37 @@ public class Lobby {
      * @param player
      */
     public void addPlayer(Player player) {
-        players.add(player);
+        players.put(player.getId(), player);
+        player.addObserver(this);
+        updateAlivePlayers();
+        notifyObserversUpdated();
     }
 
     public void removePlayer(Player player) {
-        if(!players.remove(player)) {
+        if(!players.remove(player.getId(), player)) {
             throw new IllegalArgumentException(String.format("Player with user id %d is not in Lobby and could not be removed.", player.getId()));
         }
+        updateAlivePlayers();
+        notifyObserversUpdated();
     }
 
     public void reInstatiatePlayers() {
         // this is a dirty fix, but too lazy to refactor design...
         List<Player> newPlayers = new ArrayList<>();
-        for (Player player : players) {
-            newPlayers.add(new Player(player.getId(), player.getName()));
+        for (Player player : players.values()) {
+            Player newPlayer = new Player(player.getId(), player.getName());
+            newPlayer.addObserver(this);
+            newPlayers.add(newPlayer);
         }
-        players = new HashSet<>(newPlayers);
+        Map<Long, Player> reInstantiated = new ConcurrentHashMap<>();
+        newPlayers.forEach(player -> reInstantiated.put(player.getId(), player));
+        players = reInstantiated;
+        updateAlivePlayers();
+        version.bump();
     }
 
     public Collection<Player> getPlayers() {
-        return players;
+        return players.values();
     }
 
     /**
@@ -100,9 +161,16 @@ public class Lobby {
      * @return
      */
     public Player getPlayerById(Long id) {
-        Optional<Player> player = players.stream().filter(p -> p.getId().equals(id)).findFirst();
-        assert player.isPresent();
-        return player.get();
+        Player player = players.get(id);
+        assert player != null;
+        return player;
+    }
+
+    /**
+     * @return the player with this user id, or null if the user is not in the lobby
+     */
+    public Player findPlayerById(Long id) {
+        return players.get(id);
     }
 
     public Player getAdmin() {
@@ -117,25 +185,32 @@ public class Lobby {
         return roles.values();
     }
 
+    /**
+     * @return immutable collection of the roles the player had at the time of the call
+     */
     public Collection<Role> getRolesOfPlayer(Player player) {
-        return roles.values().stream().filter(r->r.getPlayers().contains(player)).toList();
+        return rolesByPlayer.getOrDefault(player, List.of());
     }
 
     public Collection<Player> getPlayersByRole(Class<? extends Role> roleClass) {
         return roles.get(roleClass).getPlayers();
     }
 
+    /**
+     * @return immutable list of the players alive at the time of the call
+     */
     public List<Player> getAlivePlayers() {
-        ArrayList<Player> alivePlayers = new ArrayList<>();
-
-        for (Player player : this.players){
-            if (player.isAlive()){
-                alivePlayers.add(player);
-            }
-        }
         return alivePlayers;
     }
 
+    public int getAlivePlayerCount() {
+        return alivePlayers.size();
+    }
+
+    private synchronized void updateAlivePlayers() {
+        alivePlayers = players.values().stream().filter(Player::isAlive).toList();
+    }
+
     public void addPlayerToRole(Player player, Class<? extends Role> role) {
         roles.get(role).addPlayer(player);
     }
@@ -150,6 +225,7 @@ public class Lobby {
      */
     public void setPartyVoteDurationSeconds(int partyVoteDurationSeconds) {
         this.partyVoteDurationSeconds = partyVoteDurationSeconds;
+        notifyObserversUpdated();
     }
 
     public int getSingleVoteDurationSeconds() {
@@ -162,6 +238,7 @@ public class Lobby {
      */
     public void setSingleVoteDurationSeconds(int singleVoteDurationSeconds) {
         this.singleVoteDurationSeconds = singleVoteDurationSeconds;
+        notifyObserversUpdated();
     }
 
     public void instantiateRoles(
@@ -172,15 +249,36 @@ public class Lobby {
         Consumer<PollCommand> addPollCommandConsumer,
         Function<Player, Collection<Role>> getRolesOfPlayerFunction
     ) {
+        rolesByPlayer.clear();
         roles.put(Werewolf.class, new Werewolf(partyVoteDurationSeconds, alivePlayersSupplier));
-        Mayor mayor = new Mayor(singleVoteDurationSeconds, alivePlayersSupplier, new RandomTiedPollDecider(), Scheduler.getInstance());
+        Mayor mayor = new Mayor(singleVoteDurationSeconds, alivePlayersSupplier, new RandomTiedPollDecider(random), getScheduler());
         roles.put(Mayor.class, mayor);
         roles.put(Witch.class, new Witch(singleVoteDurationSeconds, alivePlayersSupplier, currentStagePollCommandsSupplier, removePollCommandConsumer));
         roles.put(Hunter.class, new Hunter(singleVoteDurationSeconds, alivePlayersSupplier));
         roles.put(Villager.class, new Villager(partyVoteDurationSeconds, addPlayerToRoleConsumer, alivePlayersSupplier, mayor));
-        roles.put(Cupid.class, new Cupid(singleVoteDurationSeconds, alivePlayersSupplier, addPlayerToRoleConsumer));
+        roles.put(Cupid.class, new Cupid(singleVoteDurationSeconds, alivePlayersSupplier, addPlayerToRoleConsumer, random));
         roles.put(Lover.class, new Lover(alivePlayersSupplier, addPollCommandConsumer));
         roles.put(Seer.class, new Seer(singleVoteDurationSeconds, alivePlayersSupplier, getRolesOfPlayerFunction));
+        roles.values().forEach(r -> r.addObserver(this));
+        firstDayVoterPlan = VoterPlan.forFirstDay(roles.values());
+        dayVoterPlan = VoterPlan.forDay(roles.values());
+        nightVoterPlan = VoterPlan.forNight(roles.values());
+    }
+
+    public GameScheduler getScheduler() {
+        return scheduler == null ? Scheduler.getInstance() : scheduler;
+    }
+
+    public VoterPlan getFirstDayVoterPlan() {
+        return firstDayVoterPlan;
+    }
+
+    public VoterPlan getDayVoterPlan() {
+        return dayVoterPlan;
+    }
+
+    public VoterPlan getNightVoterPlan() {
+        return nightVoterPlan;
     }
 
     private void addSpecialVillagerRoles(Map<Class<? extends Role>, List<Player>> mapOfPlayersPerRole, List<Player> villagers) {
@@ -211,8 +309,8 @@ public class Lobby {
     }
     public ArrayList<Player> shufflePlayers(){
         // returns a shuffled list of all the players in the lobby
-        ArrayList<Player> playerList = new ArrayList<>(this.players);
-        Collections.shuffle(playerList);
+        ArrayList<Player> playerList = new ArrayList<>(this.players.values());
+        Collections.shuffle(playerList, random);
         return playerList;
     }
 
@@ -225,6 +323,50 @@ public class Lobby {
     }
 
     public void dissolve() {
+        open = false;
+        version.bump();
         observers.forEach((o) -> o.onLobbyDissolved(this));
     }
+
+    @Override
+    public void onPlayerAdded(Role role, Player player) {
+        rolesByPlayer.compute(player, (p, rolesOfPlayer) -> {
+            if (rolesOfPlayer == null) {
+                return List.of(role);
+            }
+            if (rolesOfPlayer.contains(role)) {
+                return rolesOfPlayer;
+            }
+            List<Role> updated = new ArrayList<>(rolesOfPlayer);
+            updated.add(role);
+            return List.copyOf(updated);
+        });
+    }
+
+    @Override
+    public void onPlayersCleared(Role role, List<Player> removedPlayers) {
+        for (Player player : removedPlayers) {
+            rolesByPlayer.computeIfPresent(player, (p, rolesOfPlayer) -> {
+                List<Role> updated = rolesOfPlayer.stream().filter(r -> r != role).toList();
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    @Override
+    public void onPlayerKilled(Player player) {
+        updateAlivePlayers();
+        notifyObserversUpdated();
+    }
+
+    @Override
+    public void onPlayerRevived(Player player) {
+        updateAlivePlayers();
+        notifyObserversUpdated();
+    }
+
+    @Override
+    public void onPlayerKilled_Unrevivable(Player player) {
+        notifyObserversUpdated();
+    }
 }
@@ -2,4 +2,5 @@ package ch.uzh.ifi.hase.soprafs23.logic.lobby;
 
 public interface LobbyObserver {
     public void onLobbyDissolved(Lobby lobby);
+    public void onLobbyUpdated(Lobby lobby);
 }
@@ -2,16 +2,18 @@ package ch.uzh.ifi.hase.soprafs23.logic.lobby;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PrivatePollCommand;
 
 public class Player {
     private Long id;
     private String name;
-    private boolean alive = true;
+    private volatile boolean alive = true;
     private boolean revivable = true;
     private List<PlayerObserver> observers = new ArrayList<>();
-    private List<PrivatePollCommand> privatePollCommands = new ArrayList<>();
+    private List<PrivatePollCommand> privatePollCommands = new CopyOnWriteArrayList<>();
     private final String avatarUrl;
 
     public Player(Long id, String name) {
@@ -46,12 +48,16 @@ public class Player {
     }
 
     public void killPlayer() {
-        this.alive = false;
+        if (alive) {
+            this.alive = false;
+            observers.forEach(o -> o.onPlayerKilled(this));
+        }
     }
 
     public void revivePlayer() {
-        if (revivable) {
-            this.alive = true;   
+        if (revivable && !alive) {
+            this.alive = true;
+            observers.forEach(o -> o.onPlayerRevived(this));
         }
     }
 
@@ -69,6 +75,7 @@ public class Player {
     }
 
     public void addPrivatePollCommand(PrivatePollCommand privateInstantPollCommand) {
+        privateInstantPollCommand.assignSequence();
         privatePollCommands.add(privateInstantPollCommand);
     }
 
@@ -76,6 +83,10 @@ public class Player {
         return privatePollCommands;
     }
 
+    public List<PrivatePollCommand> getPrivatePollCommandsSince(long sequence) {
+        return PollCommand.since(privatePollCommands, sequence);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
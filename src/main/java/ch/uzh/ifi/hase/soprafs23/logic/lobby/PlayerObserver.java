@@ -2,4 +2,8 @@ package ch.uzh.ifi.hase.soprafs23.logic.lobby;
 
 public interface PlayerObserver {
     public void onPlayerKilled_Unrevivable(Player player);
+
+    public default void onPlayerKilled(Player player) {}
+
+    public default void onPlayerRevived(Player player) {}
 }
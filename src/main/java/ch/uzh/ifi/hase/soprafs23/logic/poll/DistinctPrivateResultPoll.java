@@ -1,6 +1,9 @@
 package ch.uzh.ifi.hase.soprafs23.logic.poll;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.tiedpolldecider.DistinctRandomTiedPollDecider;
@@ -47,10 +50,25 @@ public class DistinctPrivateResultPoll extends PrivateResultPoll {
 
     @Override
     public void castVote(PollParticipant voter, PollOption pollOption) throws IllegalArgumentException {
-        if (pollOption.getSupporters().contains(voter)) {
+        if (pollOption.getVotes(voter) > 0) {
             throw new IllegalArgumentException("You already voted for this option");
         }
         super.castVote(voter, pollOption);
     }
+
+    @Override
+    protected void validateVoteChange(PollParticipant voter, List<PollOption> removedVotes, List<PollOption> addedVotes) throws IllegalArgumentException {
+        super.validateVoteChange(voter, removedVotes, addedVotes);
+        Set<PollOption> selectedPollOptions = Collections.newSetFromMap(new IdentityHashMap<>());
+        getPollOptions().stream()
+            .filter(pollOption -> pollOption.getVotes(voter) > 0)
+            .forEach(selectedPollOptions::add);
+        removedVotes.forEach(selectedPollOptions::remove);
+        for (PollOption pollOption : addedVotes) {
+            if (!selectedPollOptions.add(pollOption)) {
+                throw new IllegalArgumentException("You already voted for this option");
+            }
+        }
+    }
     
 }
\ No newline at end of file
@@ -3,12 +3,19 @@ package ch.uzh.ifi.hase.soprafs23.logic.poll;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+import ch.uzh.ifi.hase.soprafs23.logic.game.ScheduledTask;
+import ch.uzh.ifi.hase.soprafs23.logic.game.StateVersion;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.NullPollCommand;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.tiedpolldecider.TiedPollDecider;
@@ -20,20 +27,40 @@ public class Poll{
     private String question;
     private List<PollOption> pollOptions;
     private List<PollParticipant> pollParticipants;
+    private Map<PollOption, Integer> pollOptionSlots;
+    private VoteTally voteTally;
+    private Set<PollParticipant> pollParticipantSet;
+    // built on the first lookup by player id, reset whenever options or participants are replaced
+    private volatile Map<Long, PollOption> pollOptionsByPlayerId;
+    private volatile Map<Long, PollParticipant> pollParticipantsByPlayerId;
     private int durationSeconds;
     private Date scheduledFinish;
+    // when the last vote was cast, if that was before the scheduled finish
+    private Date quorumReachedAt;
+    private ScheduledTask finishTask;
     private TiedPollDecider tiedPollDecider;
     private Optional<PollCommand> resultCommand = Optional.empty();
     private List<PollObserver> observers = new ArrayList<>();
+    private boolean finished = false;
+    private boolean finishOnQuorum = false;
+    private int remainingVotes;
+    private final StateVersion version = new StateVersion();
     
     public void addObserver(PollObserver observer) {
         observers.add(observer);
     }
 
     protected void notifyObserversFinished() {
+        finished = true;
+        version.bump();
         observers.stream().forEach(o->o.onPollFinished());
     }
 
+    private void notifyObserversUpdated() {
+        version.bump();
+        observers.stream().forEach(o->o.onPollUpdated());
+    }
+
     /**
      * @pre pollOption >= 1
      * @param role
@@ -49,64 +76,157 @@ public class Poll{
         this.question = question;
         this.pollOptions = pollOptions;
         this.pollParticipants = pollParticipants;
+        this.pollParticipantSet = new HashSet<>(pollParticipants);
         this.durationSeconds = durationSeconds;
         this.tiedPollDecider = tiedPollDecider;
+        this.remainingVotes = countRemainingVotes(pollParticipants);
+        indexPollOptions();
+    }
+
+    /**
+     * Assigns every option its position in the options list as slot and starts a tally from the current supporters.
+     */
+    private void indexPollOptions() {
+        pollOptionSlots = new IdentityHashMap<>();
+        voteTally = new VoteTally(pollOptions.size(), remainingVotes);
+        for (int slot = 0; slot < pollOptions.size(); slot++) {
+            PollOption pollOption = pollOptions.get(slot);
+            pollOptionSlots.put(pollOption, slot);
+            for (int i = 0; i < pollOption.getSupportersAmount(); i++) {
+                voteTally.increment(slot);
+            }
+        }
+    }
+
+    private static int countRemainingVotes(List<PollParticipant> pollParticipants) {
+        return pollParticipants.stream().mapToInt(PollParticipant::getRemainingVotes).sum();
+    }
+
+    private void validateVoteTarget(PollParticipant voter, PollOption pollOption) throws IllegalArgumentException{
+        if (finished) {
+            throw new IllegalArgumentException("Poll is already finished.");
+        }
+        if (!pollParticipantSet.contains(voter)) {
+            throw new IllegalArgumentException("Voter is not a participant of this poll.");
+        }
+        if (!pollOptionSlots.containsKey(pollOption)) {
+            throw new IllegalArgumentException("Poll option is not part of this poll.");
+        }
     }
 
     public void castVote(PollParticipant voter, PollOption pollOption) throws IllegalArgumentException{
+        validateVoteTarget(voter, pollOption);
         if (voter.getRemainingVotes() > 0) {
-            pollOption.addSupporter(voter);
-            voter.decreaseRemainingVotes();
+            addVote(voter, pollOption);
         } else {
             throw new IllegalArgumentException("Voter has no remaining votes");
         }
+        notifyObserversUpdated();
+        if (finishOnQuorum && remainingVotes == 0) {
+            onQuorumReached();
+        }
+    }
+
+    /**
+     * Moves the finish timer to now. Finishing goes through the timer so it runs after the current vote has completed.
+     */
+    private void onQuorumReached() {
+        quorumReachedAt = new Date();
+        if (finishTask != null) {
+            finishTask.reschedule(0, TimeUnit.SECONDS);
+        }
     }
 
     public void removeVote(PollParticipant voter, PollOption pollOption) throws IllegalArgumentException{
-        if (!pollOption.getSupporters().contains(voter)) {
+        validateVoteTarget(voter, pollOption);
+        if (pollOption.getVotes(voter) == 0) {
             throw new IllegalArgumentException("Voter has not voted for this poll option.");
         }
+        subtractVote(voter, pollOption);
+        notifyObserversUpdated();
+    }
+
+    /**
+     * Removes and then adds votes of the voter as one update, so a vote can be moved even without remaining votes.
+     * Nothing is changed if any of the changes is invalid.
+     */
+    public void changeVotes(PollParticipant voter, List<PollOption> removedVotes, List<PollOption> addedVotes) throws IllegalArgumentException {
+        validateVoteChange(voter, removedVotes, addedVotes);
+        removedVotes.forEach(pollOption -> subtractVote(voter, pollOption));
+        addedVotes.forEach(pollOption -> addVote(voter, pollOption));
+        notifyObserversUpdated();
+        if (finishOnQuorum && remainingVotes == 0) {
+            onQuorumReached();
+        }
+    }
+
+    protected void validateVoteChange(PollParticipant voter, List<PollOption> removedVotes, List<PollOption> addedVotes) throws IllegalArgumentException {
+        Map<PollOption, Integer> ownVotes = new IdentityHashMap<>();
+        for (PollOption pollOption : removedVotes) {
+            validateVoteTarget(voter, pollOption);
+            int votes = ownVotes.computeIfAbsent(pollOption, option -> option.getVotes(voter));
+            if (votes == 0) {
+                throw new IllegalArgumentException("Voter has not voted for this poll option.");
+            }
+            ownVotes.put(pollOption, votes - 1);
+        }
+        for (PollOption pollOption : addedVotes) {
+            validateVoteTarget(voter, pollOption);
+        }
+        if (voter.getRemainingVotes() + removedVotes.size() < addedVotes.size()) {
+            throw new IllegalArgumentException("Voter has no remaining votes");
+        }
+    }
+
+    private void addVote(PollParticipant voter, PollOption pollOption) {
+        pollOption.addSupporter(voter);
+        voteTally.increment(pollOptionSlots.get(pollOption));
+        voter.decreaseRemainingVotes();
+        remainingVotes--;
+    }
+
+    private void subtractVote(PollParticipant voter, PollOption pollOption) {
         pollOption.removeSupporter(voter);
+        voteTally.decrement(pollOptionSlots.get(pollOption));
         voter.increaseRemainingVotes();
+        remainingVotes++;
     }
 
     public void setResultCommand(PollCommand resultCommand) {
         this.resultCommand = Optional.of(resultCommand);
+        version.bump();
     }
 
-    private List<PollOption> getTiedPollOptions(int supportersAmount, List<PollOption> pollOptionsOrderedBySupporters) {
-        return pollOptionsOrderedBySupporters.stream().filter(pollOption -> pollOption.getSupportersAmount() == supportersAmount).toList();
+    private List<PollOption> getTiedPollOptions() {
+        int maxCount = voteTally.getMaxCount();
+        List<PollOption> tiedPollOptions = new ArrayList<>();
+        for (int slot = 0; slot < pollOptions.size(); slot++) {
+            if (voteTally.getCount(slot) == maxCount) {
+                tiedPollOptions.add(pollOptions.get(slot));
+            }
+        }
+        return tiedPollOptions;
     }
 
     public void finish() {
         finish(this::setResultCommand);
     }
 
-    private List<PollOption> getPollOptionsOrderedBySupporters() {
-        return pollOptions.stream()
-            .sorted(Comparator.comparing(PollOption::getSupportersAmount)
-            .reversed())
-            .toList();
-    }
-
-    private boolean isTie(List<PollOption> pollOptionsOrderedBySupporters) {
-        PollOption first = pollOptionsOrderedBySupporters.get(0);
-        if (pollOptionsOrderedBySupporters.size() < 2) {
-            return first.getSupportersAmount() == 0;
+    /**
+     * Used by finish timers, which may still fire after the poll finished early.
+     */
+    public void finishIfOpen() {
+        if (!finished) {
+            finish();
         }
-        
-        PollOption second = pollOptionsOrderedBySupporters.get(1);
-        return first.getSupportersAmount() == second.getSupportersAmount();
     }
 
     protected void finish(Consumer<PollCommand> resultCommandConsumer) {
-        List<PollOption> pollOptionsOrderedBySupporters = getPollOptionsOrderedBySupporters();
-        PollOption first = pollOptionsOrderedBySupporters.get(0);
-        if (!isTie(pollOptionsOrderedBySupporters)) {
-            resultCommandConsumer.accept(first.getPollCommand());
+        if (!voteTally.isTie()) {
+            resultCommandConsumer.accept(pollOptions.get(voteTally.getLeader()).getPollCommand());
             notifyObserversFinished();
         } else {
-            tiedPollDecider.executeTiePoll(this, getTiedPollOptions(first.getSupportersAmount(), pollOptionsOrderedBySupporters), this::notifyObserversFinished);
+            tiedPollDecider.executeTiePoll(this, getTiedPollOptions(), this::notifyObserversFinished);
         }
     }
 
@@ -124,6 +244,7 @@ public class Poll{
 
     public void setDurationSeconds(int durationSeconds) {
         this.durationSeconds = durationSeconds;
+        version.bump();
     }
 
     public Date getScheduledFinish() {
@@ -135,16 +256,79 @@ public class Poll{
         return calendar.getTime();
     }
 
+    /**
+     * @return the earlier of the scheduled finish and the moment the quorum was reached, null if neither is known
+     */
+    public Date getFinishDue() {
+        if (quorumReachedAt != null && (scheduledFinish == null || quorumReachedAt.before(scheduledFinish))) {
+            return quorumReachedAt;
+        }
+        return scheduledFinish;
+    }
+
     public void setScheduledFinish(Date scheduledFinish) {
         this.scheduledFinish = scheduledFinish;
+        this.quorumReachedAt = null;
+        version.bump();
+    }
+
+    public ScheduledTask getFinishTask() {
+        return finishTask;
+    }
+
+    /**
+     * @param finishTask timer that will finish this poll, replaces the previous one
+     */
+    public void setFinishTask(ScheduledTask finishTask) {
+        this.finishTask = finishTask;
     }
 
     public void setPollOptions(List<PollOption> pollOptions) {
         this.pollOptions = pollOptions;
+        this.pollOptionsByPlayerId = null;
+        indexPollOptions();
+        version.bump();
     }
 
     public void setPollParticipants(List<PollParticipant> pollParticipants) {
         this.pollParticipants = pollParticipants;
+        this.pollParticipantSet = new HashSet<>(pollParticipants);
+        this.pollParticipantsByPlayerId = null;
+        this.remainingVotes = countRemainingVotes(pollParticipants);
+        version.bump();
+    }
+
+    /**
+     * @return version of everything shown in the poll, bumped by votes and by changes to the poll itself
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * @return votes the option got so far, 0 for options not part of this poll
+     */
+    public int getVoteCount(PollOption pollOption) {
+        Integer slot = pollOptionSlots.get(pollOption);
+        return slot == null ? 0 : voteTally.getCount(slot);
+    }
+
+    /**
+     * @return votes all participants together may still cast
+     */
+    public int getRemainingVotes() {
+        return remainingVotes;
+    }
+
+    public boolean isFinishOnQuorum() {
+        return finishOnQuorum;
+    }
+
+    /**
+     * @param finishOnQuorum finish as soon as every participant has used all votes, requires a finish task
+     */
+    public void setFinishOnQuorum(boolean finishOnQuorum) {
+        this.finishOnQuorum = finishOnQuorum;
     }
 
     public void setTiedPollDecider(TiedPollDecider tiedPollDecider) {
@@ -163,6 +347,36 @@ public class Poll{
         return pollOptions;
     }
 
+    /**
+     * @return participant voting as the player with the given id, or null
+     */
+    public PollParticipant getPollParticipant(Long playerId) {
+        Map<Long, PollParticipant> byPlayerId = pollParticipantsByPlayerId;
+        if (byPlayerId == null) {
+            byPlayerId = new HashMap<>();
+            for (PollParticipant pollParticipant : pollParticipants) {
+                byPlayerId.put(pollParticipant.getPlayer().getId(), pollParticipant);
+            }
+            pollParticipantsByPlayerId = byPlayerId;
+        }
+        return byPlayerId.get(playerId);
+    }
+
+    /**
+     * @return option targeting the player with the given id, or null
+     */
+    public PollOption getPollOption(Long playerId) {
+        Map<Long, PollOption> byPlayerId = pollOptionsByPlayerId;
+        if (byPlayerId == null) {
+            byPlayerId = new HashMap<>();
+            for (PollOption pollOption : pollOptions) {
+                byPlayerId.put(pollOption.getPlayer().getId(), pollOption);
+            }
+            pollOptionsByPlayerId = byPlayerId;
+        }
+        return byPlayerId.get(playerId);
+    }
+
     public String getQuestion() {
         return question;
     }
@@ -174,5 +388,9 @@ public class Poll{
     public String getId() {
         return id;
     }
+
+    public boolean isFinished() {
+        return finished;
+    }
     
 }
@@ -2,4 +2,5 @@ package ch.uzh.ifi.hase.soprafs23.logic.poll;
 
 public interface PollObserver {
     public void onPollFinished();
+    public void onPollUpdated();
 }
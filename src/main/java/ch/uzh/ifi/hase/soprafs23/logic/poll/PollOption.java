@@ -1,13 +1,18 @@
 package ch.uzh.ifi.hase.soprafs23.logic.poll;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
 
 public class PollOption {
-    private List<PollParticipant> supporters = new ArrayList<>();
+    // votes per supporter, in the order the supporters first voted for this option
+    private Map<PollParticipant, Integer> supporterVotes = new LinkedHashMap<>();
+    private int supportersAmount = 0;
     private Player player;
     private PollCommand pollCommand;
 
@@ -17,18 +22,41 @@ public class PollOption {
     }
 
     public void addSupporter(PollParticipant supporter) {
-        supporters.add(supporter);
+        supporterVotes.merge(supporter, 1, Integer::sum);
+        supportersAmount++;
     }
 
     public void removeSupporter(PollParticipant supporter) {
-        supporters.remove(supporter);
+        Integer votes = supporterVotes.get(supporter);
+        if (votes == null) {
+            return;
+        }
+        if (votes > 1) {
+            supporterVotes.put(supporter, votes - 1);
+        } else {
+            supporterVotes.remove(supporter);
+        }
+        supportersAmount--;
     }
 
     public void clearSupporters() {
-        supporters.clear();
+        supporterVotes.clear();
+        supportersAmount = 0;
     }
 
+    /**
+     * @return how many times the participant voted for this option
+     */
+    public int getVotes(PollParticipant supporter) {
+        return supporterVotes.getOrDefault(supporter, 0);
+    }
+
+    /**
+     * @return the supporters, each repeated once per vote
+     */
     public List<PollParticipant> getSupporters() {
+        List<PollParticipant> supporters = new ArrayList<>(supportersAmount);
+        supporterVotes.forEach((supporter, votes) -> supporters.addAll(Collections.nCopies(votes, supporter)));
         return supporters;
     }
 
@@ -41,7 +69,7 @@ public class PollOption {
     }
 
     public int getSupportersAmount() {
-        return supporters.size();
+        return supportersAmount;
     }
 
     
@@ -0,0 +1,85 @@
+package ch.uzh.ifi.hase.soprafs23.logic.poll;
+
+import java.util.Arrays;
+
+/**
+ * Vote counts of the options of a poll, indexed by option slot.
+ * Besides the count of every option it keeps, per count, how many options have it and the sum of their slots,
+ * so the leading count, the number of tied leaders and a sole leader are known after every vote without a scan.
+ */
+final class VoteTally {
+    private final int[] counts;
+    // both indexed by count, grown when a count exceeds the expected number of votes
+    private int[] optionsWithCount;
+    private int[] slotSumWithCount;
+    private int maxCount = 0;
+
+    /**
+     * @pre optionCount >= 0 && expectedVotes >= 0
+     * @param expectedVotes number of votes all participants together may cast
+     */
+    VoteTally(int optionCount, int expectedVotes) {
+        this.counts = new int[optionCount];
+        this.optionsWithCount = new int[expectedVotes + 1];
+        this.slotSumWithCount = new int[expectedVotes + 1];
+        optionsWithCount[0] = optionCount;
+        slotSumWithCount[0] = optionCount * (optionCount - 1) / 2;
+    }
+
+    void increment(int slot) {
+        int count = counts[slot]++;
+        move(slot, count, count + 1);
+        if (count + 1 > maxCount) {
+            maxCount = count + 1;
+        }
+    }
+
+    /**
+     * @pre getCount(slot) > 0
+     */
+    void decrement(int slot) {
+        int count = counts[slot]--;
+        move(slot, count, count - 1);
+        if (count == maxCount && optionsWithCount[count] == 0) {
+            maxCount = count - 1;
+        }
+    }
+
+    private void move(int slot, int from, int to) {
+        if (to >= optionsWithCount.length) {
+            optionsWithCount = Arrays.copyOf(optionsWithCount, 2 * to);
+            slotSumWithCount = Arrays.copyOf(slotSumWithCount, 2 * to);
+        }
+        optionsWithCount[from]--;
+        slotSumWithCount[from] -= slot;
+        optionsWithCount[to]++;
+        slotSumWithCount[to] += slot;
+    }
+
+    int getCount(int slot) {
+        return counts[slot];
+    }
+
+    int getMaxCount() {
+        return maxCount;
+    }
+
+    int getOptionCount() {
+        return counts.length;
+    }
+
+    /**
+     * @return true if no option got a vote or several options share the highest count
+     */
+    boolean isTie() {
+        return maxCount == 0 || optionsWithCount[maxCount] > 1;
+    }
+
+    /**
+     * @pre !isTie()
+     * @return slot of the only option with the highest count
+     */
+    int getLeader() {
+        return slotSumWithCount[maxCount];
+    }
+}
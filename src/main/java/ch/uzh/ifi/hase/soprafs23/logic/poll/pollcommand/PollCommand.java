@@ -1,12 +1,17 @@
 package ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand;
 
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 
 public abstract class PollCommand {
+    private static final AtomicLong sequenceCounter = new AtomicLong();
+
     private final Player affectedPlayer;
     private Date executionTime;
+    private volatile long sequence = 0;
 
     public PollCommand(Player affectedPlayer) {
         this.affectedPlayer = affectedPlayer;
@@ -24,4 +29,32 @@ public abstract class PollCommand {
     public Date getExecutionTime() {
         return executionTime;
     }
+
+    /**
+     * @return position in the action log, 0 until the command is appended to a game's or player's log
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Called when the command is appended to an action log, later calls keep the first sequence.
+     */
+    public void assignSequence() {
+        if (sequence == 0) {
+            sequence = sequenceCounter.incrementAndGet();
+        }
+    }
+
+    /**
+     * @pre commands are ordered by sequence
+     * @return the commands appended after the given sequence
+     */
+    public static <T extends PollCommand> List<T> since(List<T> commands, long sequence) {
+        int start = commands.size();
+        while (start > 0 && commands.get(start - 1).getSequence() > sequence) {
+            start--;
+        }
+        return List.copyOf(commands.subList(start, commands.size()));
+    }
 }
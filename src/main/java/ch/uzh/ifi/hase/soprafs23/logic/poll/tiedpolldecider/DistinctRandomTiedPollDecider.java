@@ -10,6 +10,16 @@ import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
 
 public class DistinctRandomTiedPollDecider implements TiedPollDecider {
+    private final Random random;
+
+    public DistinctRandomTiedPollDecider() {
+        this(new Random());
+    }
+
+    public DistinctRandomTiedPollDecider(Random random) {
+        this.random = random;
+    }
+
     /**
      * @pre Poll instanceof DistinctPrivateResultPoll
      */
@@ -18,7 +28,7 @@ public class DistinctRandomTiedPollDecider implements TiedPollDecider {
         List<PollOption> unselected = poll.getPollOptions().stream().filter(pollOption -> !pollOptions.contains(pollOption)).collect(Collectors.toCollection(ArrayList::new));
         PollParticipant pollParticipant = poll.getPollParticipants().stream().findFirst().get();
         while (pollParticipant.getRemainingVotes() != 0) {
-            PollOption randomUnselected = unselected.get(new Random().nextInt(unselected.size()));
+            PollOption randomUnselected = unselected.get(random.nextInt(unselected.size()));
             poll.castVote(pollParticipant, randomUnselected);
             unselected.remove(randomUnselected);
         }
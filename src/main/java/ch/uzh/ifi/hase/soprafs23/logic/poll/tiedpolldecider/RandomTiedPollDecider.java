@@ -7,10 +7,19 @@ import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
 
 public class RandomTiedPollDecider implements TiedPollDecider {
+    private final Random random;
+
+    public RandomTiedPollDecider() {
+        this(new Random());
+    }
+
+    public RandomTiedPollDecider(Random random) {
+        this.random = random;
+    }
 
     @Override
     public void executeTiePoll(Poll poll, List<PollOption> pollOptions, Runnable onTiePollFinished) {
-        PollOption selected = pollOptions.get(new Random().nextInt(pollOptions.size()));
+        PollOption selected = pollOptions.get(random.nextInt(pollOptions.size()));
         poll.setResultCommand(selected.getPollCommand());
         onTiePollFinished.run();
     }
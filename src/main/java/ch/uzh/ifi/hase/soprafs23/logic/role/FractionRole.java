@@ -1,27 +1,74 @@
 package ch.uzh.ifi.hase.soprafs23.logic.role;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.PlayerObserver;
 
 public abstract class FractionRole extends Role{
     private final Supplier<List<Player>> alivePlayersGetter;
+    private final Set<Player> members = new HashSet<>();
+    // kept up to date by the deaths and revivals of the members, so hasWon does not need to look at the players
+    private final Set<Player> aliveMembers = new HashSet<>();
+    private final PlayerObserver aliveMemberTracker = new AliveMemberTracker();
 
     protected FractionRole(Supplier<List<Player>> alivePlayersGetter) {
         this.alivePlayersGetter = alivePlayersGetter;
     }
-    
+
+    /**
+     * @pre the alive players contain every alive member
+     * @return true if all players still alive belong to this fraction
+     */
     public boolean hasWon() {
-        for(Player player : getAllAlivePlayers()) {
-            if(!getPlayers().contains(player)) {
-                return false;
+        return aliveMembers.size() == getAllAlivePlayers().size();
+    }
+
+    @Override
+    public void addPlayer(Player player) {
+        super.addPlayer(player);
+        if (members.add(player)) {
+            player.addObserver(aliveMemberTracker);
+            if (player.isAlive()) {
+                aliveMembers.add(player);
             }
         }
-        return true;
+    }
+
+    @Override
+    public void clearPlayers() {
+        super.clearPlayers();
+        members.clear();
+        aliveMembers.clear();
+    }
+
+    public int getAliveMemberCount() {
+        return aliveMembers.size();
     }
 
     protected List<Player> getAllAlivePlayers() {
         return alivePlayersGetter.get();
     }
+
+    private class AliveMemberTracker implements PlayerObserver {
+        @Override
+        public void onPlayerKilled(Player player) {
+            aliveMembers.remove(player);
+        }
+
+        @Override
+        public void onPlayerRevived(Player player) {
+            if (members.contains(player)) {
+                aliveMembers.add(player);
+            }
+        }
+
+        @Override
+        public void onPlayerKilled_Unrevivable(Player player) {
+            // already counted as dead when the player was killed
+        }
+    }
 }
@@ -7,16 +7,24 @@ import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 
 public abstract class Role implements Comparable<Role>{
     private List<Player> players = new ArrayList<>();
+    private List<RoleObserver> observers = new ArrayList<>();
 
     public abstract String getName();
     public abstract String getDescription();
 
+    public void addObserver(RoleObserver observer) {
+        observers.add(observer);
+    }
+
     public void addPlayer(Player player) {
         this.players.add(player);
+        observers.forEach(o -> o.onPlayerAdded(this, player));
     }
 
     public void clearPlayers() {
-        this.players.removeAll(this.players);
+        List<Player> removedPlayers = List.copyOf(this.players);
+        this.players.clear();
+        observers.forEach(o -> o.onPlayersCleared(this, removedPlayers));
     }
 
     public List<Player> getPlayers() {
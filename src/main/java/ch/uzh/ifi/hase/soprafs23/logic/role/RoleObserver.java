@@ -0,0 +1,10 @@
+package ch.uzh.ifi.hase.soprafs23.logic.role;
+
+import java.util.List;
+
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+
+public interface RoleObserver {
+    public void onPlayerAdded(Role role, Player player);
+    public void onPlayersCleared(Role role, List<Player> removedPlayers);
+}
@@ -1,6 +1,8 @@
 package ch.uzh.ifi.hase.soprafs23.logic.role;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Cupid;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Hunter;
@@ -24,12 +26,23 @@ public class RolePrioritiser {
         Witch.class
     );
 
+    // index of every class in the priority list, so comparing roles does not search the list
+    private static final Map<Class<? extends Role>, Integer> priorityByClass = indexPriorities();
+
+    private static Map<Class<? extends Role>, Integer> indexPriorities() {
+        Map<Class<? extends Role>, Integer> index = new HashMap<>();
+        for (int i = 0; i < priority.size(); i++) {
+            index.put(priority.get(i), i);
+        }
+        return Map.copyOf(index);
+    }
+
     /**
      * @pre priority.contains(role.getClass())
      * @param role
      * @return
      */
     public static int getPriority(Role role) {
-        return priority.indexOf(role.getClass());
+        return priorityByClass.getOrDefault(role.getClass(), -1);
     }
 }
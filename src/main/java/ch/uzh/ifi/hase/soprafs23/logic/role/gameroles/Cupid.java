@@ -2,6 +2,7 @@ package ch.uzh.ifi.hase.soprafs23.logic.role.gameroles;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
@@ -20,8 +21,14 @@ public class Cupid extends Role implements NightVoter {
     private BiConsumer<Player, Class<? extends Role>> addPlayerToRole;
     private Supplier<List<Player>> alivePlayersGetter;
     private boolean firstNight = true;
+    private final Random random;
 
     public Cupid(int voteDurationSeconds, Supplier<List<Player>> alivePlayersGetter, BiConsumer<Player, Class<? extends Role>> addPlayerToRole) {
+        this(voteDurationSeconds, alivePlayersGetter, addPlayerToRole, new Random());
+    }
+
+    public Cupid(int voteDurationSeconds, Supplier<List<Player>> alivePlayersGetter, BiConsumer<Player, Class<? extends Role>> addPlayerToRole, Random random) {
+        this.random = random;
         this.addPlayerToRole = addPlayerToRole;
         this.alivePlayersGetter = alivePlayersGetter;
         this.voteDurationSeconds = voteDurationSeconds;
@@ -38,7 +45,7 @@ public class Cupid extends Role implements NightVoter {
                     alivePlayersGetter.get().stream().map(player -> new PrivateResultPollOption(player, new PrivateAddPlayerToRolePollCommand(addPlayerToRole, player, Lover.class, player))).toList(),
                     getPlayers().stream().map(player -> new PollParticipant(player, 2)).findFirst().get(),
                     voteDurationSeconds,
-                    new DistinctRandomTiedPollDecider())
+                    new DistinctRandomTiedPollDecider(random))
             );
         }
         return Optional.empty();
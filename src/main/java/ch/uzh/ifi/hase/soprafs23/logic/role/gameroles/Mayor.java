@@ -5,7 +5,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 
-import ch.uzh.ifi.hase.soprafs23.logic.game.Scheduler;
+import ch.uzh.ifi.hase.soprafs23.logic.game.GameScheduler;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.PlayerObserver;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
@@ -21,10 +21,10 @@ public class Mayor extends Role implements TiedPollDecider, DayVoter, NightVoter
     private final int voteDurationSeconds;
     private Supplier<List<Player>> alivePlayersGetter;
     private TiedPollDecider noMayorDecider;
-    private Scheduler scheduler;
+    private GameScheduler scheduler;
     private boolean mayorDied = false;
 
-    public Mayor(int voteDurationSeconds, Supplier<List<Player>> alivePlayersGetter, TiedPollDecider noMayorDecider, Scheduler scheduler) {
+    public Mayor(int voteDurationSeconds, Supplier<List<Player>> alivePlayersGetter, TiedPollDecider noMayorDecider, GameScheduler scheduler) {
         this.alivePlayersGetter = alivePlayersGetter;
         this.noMayorDecider = noMayorDecider;
         this.scheduler = scheduler;
@@ -53,7 +53,7 @@ public class Mayor extends Role implements TiedPollDecider, DayVoter, NightVoter
         poll.setTiedPollDecider(noMayorDecider);
         poll.setDurationSeconds(voteDurationSeconds);
         poll.setScheduledFinish(poll.calculateScheduledFinish(Calendar.getInstance()));
-        scheduler.schedule(poll::finish, poll.getDurationSeconds());
+        poll.setFinishTask(scheduler.schedule(poll::finishIfOpen, poll.getDurationSeconds()));
     }
 
     @Override
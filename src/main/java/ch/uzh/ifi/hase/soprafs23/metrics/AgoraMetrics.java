@@ -0,0 +1,58 @@
+package ch.uzh.ifi.hase.soprafs23.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import ch.uzh.ifi.hase.soprafs23.agora.Agora;
+import ch.uzh.ifi.hase.soprafs23.agora.LatencyHistogram;
+import ch.uzh.ifi.hase.soprafs23.service.AgoraService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Agora REST calls, kicking rule batches and the voice channel token cache.
+ */
+@Component
+public class AgoraMetrics implements MeterBinder {
+    private final AgoraService agoraService;
+
+    public AgoraMetrics(AgoraService agoraService) {
+        this.agoraService = agoraService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindLatency(registry, "werewolf.agora.calls", "Agora REST calls including retries", Agora.getCallLatency());
+        FunctionCounter.builder("werewolf.agora.calls.failed", Agora.class, agora -> Agora.getCallFailures())
+            .description("Agora REST calls that failed after their last retry")
+            .register(registry);
+        bindLatency(registry, "werewolf.agora.batches", "Kicking rule batches of a stage transition", Agora.getBatchLatency());
+
+        FunctionCounter.builder("werewolf.agora.token.cache.requests", agoraService, AgoraService::getTokenCacheHits)
+            .description("Voice channel token requests by cache result")
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("werewolf.agora.token.cache.requests", agoraService, AgoraService::getTokenCacheMisses)
+            .description("Voice channel token requests by cache result")
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder("werewolf.agora.token.cache.size", agoraService, AgoraService::getTokenCacheSize)
+            .description("Cached voice channel tokens")
+            .register(registry);
+    }
+
+    /**
+     * Records every latency of the histogram from now on in a timer, whose max and percentiles decay like those of the other timers.
+     */
+    private static void bindLatency(MeterRegistry registry, String name, String description, LatencyHistogram histogram) {
+        Timer timer = Timer.builder(name)
+            .description(description)
+            .publishPercentileHistogram()
+            .register(registry);
+        histogram.addListener(nanos -> timer.record(Math.max(0, nanos), TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,105 @@
+package ch.uzh.ifi.hase.soprafs23.metrics;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.logic.game.GameObserver;
+import ch.uzh.ifi.hase.soprafs23.logic.game.Stage;
+import ch.uzh.ifi.hase.soprafs23.logic.game.StageType;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.service.GameService;
+import ch.uzh.ifi.hase.soprafs23.service.LobbyService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Lobbies, games, polls and votes.
+ * Game state is read outside of the game mailboxes, so the gauges may lag behind by a moment.
+ */
+@Component
+public class GameMetrics implements MeterBinder, GameObserver {
+    private final LobbyService lobbyService;
+    private final GameService gameService;
+    private volatile Timer pollFinalization;
+
+    public GameMetrics(LobbyService lobbyService, GameService gameService) {
+        this.lobbyService = lobbyService;
+        this.gameService = gameService;
+        gameService.addGameObserver(this);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("werewolf.lobbies.active", lobbyService, service -> service.getLobbies().size())
+            .description("Lobbies that have not been dissolved")
+            .register(registry);
+        Gauge.builder("werewolf.games.active", gameService, service -> countRunningGames(game -> true))
+            .description("Games that started and have not finished")
+            .register(registry);
+        for (StageType stageType : StageType.values()) {
+            Gauge.builder("werewolf.games.stage", gameService, service -> countRunningGames(game -> isInStage(game, stageType)))
+                .description("Running games by the type of their current stage")
+                .tag("stage", stageType.name())
+                .register(registry);
+        }
+        Gauge.builder("werewolf.polls.open", gameService, service -> countRunningGames(Game::hasOpenPoll))
+            .description("Polls that are waiting for votes or their timer")
+            .register(registry);
+        FunctionCounter.builder("werewolf.poll.votes", gameService, GameService::getVotesCast)
+            .description("Votes cast by players")
+            .register(registry);
+        pollFinalization = Timer.builder("werewolf.poll.finalization")
+            .description("Time from the scheduled finish or the quorum of a poll until its stage handles the result")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private long countRunningGames(Predicate<Game> predicate) {
+        return gameService.getGames().stream()
+            .filter(game -> game.isStarted() && !game.isFinished())
+            .filter(predicate)
+            .count();
+    }
+
+    private static boolean isInStage(Game game, StageType stageType) {
+        Stage stage = game.getCurrentStage();
+        return stage != null && stage.getType() == stageType;
+    }
+
+    @Override
+    public void onPollFinished(Game game, Poll poll) {
+        Date due = poll.getFinishDue();
+        Timer timer = pollFinalization;
+        if (due != null && timer != null) {
+            timer.record(Math.max(0, System.currentTimeMillis() - due.getTime()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void onNewPoll(Game game) {
+    }
+
+    @Override
+    public void onPollUpdated(Game game) {
+    }
+
+    @Override
+    public void onNewStage(Game game) {
+    }
+
+    @Override
+    public void onGameFinished(Game game) {
+    }
+
+    @Override
+    public void onPlayerDiedUnrevivable(Game game, Player player) {
+    }
+}
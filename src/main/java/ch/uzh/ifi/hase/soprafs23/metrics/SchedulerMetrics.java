@@ -0,0 +1,32 @@
+package ch.uzh.ifi.hase.soprafs23.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.Scheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Pending timers and timer lag of the shared game scheduler.
+ */
+@Component
+public class SchedulerMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Scheduler scheduler = Scheduler.getInstance();
+        Gauge.builder("werewolf.scheduler.queue.depth", scheduler, Scheduler::getQueueDepth)
+            .description("Timers that have neither fired nor been cancelled")
+            .register(registry);
+        TimeGauge.builder("werewolf.scheduler.lag", scheduler, TimeUnit.MILLISECONDS, Scheduler::getLastLagMillis)
+            .description("Largest delay between deadline and firing over the last firing of each shard")
+            .register(registry);
+        TimeGauge.builder("werewolf.scheduler.lag.max", scheduler, TimeUnit.MILLISECONDS, Scheduler::getMaxLagMillis)
+            .description("Largest delay between deadline and firing since startup")
+            .register(registry);
+    }
+}
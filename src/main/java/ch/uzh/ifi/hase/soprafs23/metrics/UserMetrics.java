@@ -0,0 +1,41 @@
+package ch.uzh.ifi.hase.soprafs23.metrics;
+
+import org.springframework.stereotype.Component;
+
+import ch.uzh.ifi.hase.soprafs23.service.UserService;
+import ch.uzh.ifi.hase.soprafs23.service.UserTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Cache of session tokens that every authenticated request resolves.
+ */
+@Component
+public class UserMetrics implements MeterBinder {
+    private final UserService userService;
+
+    public UserMetrics(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        UserTokenCache tokenCache = userService.getTokenCache();
+        FunctionCounter.builder("werewolf.users.token.cache.requests", tokenCache, UserTokenCache::getHits)
+            .description("Session token lookups by cache result")
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("werewolf.users.token.cache.requests", tokenCache, UserTokenCache::getMisses)
+            .description("Session token lookups by cache result")
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("werewolf.users.token.cache.evictions", tokenCache, UserTokenCache::getEvictions)
+            .description("Session tokens evicted because the cache was full")
+            .register(registry);
+        Gauge.builder("werewolf.users.token.cache.size", tokenCache, UserTokenCache::size)
+            .description("Cached session tokens")
+            .register(registry);
+    }
+}
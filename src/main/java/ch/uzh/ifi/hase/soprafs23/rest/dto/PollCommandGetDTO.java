@@ -7,7 +7,14 @@ public class PollCommandGetDTO {
     private PlayerGetDTO affectedPlayer;
     private String message;
     private Date executionTime;
+    private long sequence;
     
+    public long getSequence() {
+        return sequence;
+    }
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
     public String getType() {
         return type;
     }
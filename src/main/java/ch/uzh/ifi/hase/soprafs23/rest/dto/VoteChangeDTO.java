@@ -0,0 +1,21 @@
+package ch.uzh.ifi.hase.soprafs23.rest.dto;
+
+import ch.uzh.ifi.hase.soprafs23.constant.VoteAction;
+
+public class VoteChangeDTO {
+    private VoteAction action;
+    private Long optionId;
+
+    public VoteAction getAction() {
+        return action;
+    }
+    public void setAction(VoteAction action) {
+        this.action = action;
+    }
+    public Long getOptionId() {
+        return optionId;
+    }
+    public void setOptionId(Long optionId) {
+        this.optionId = optionId;
+    }
+}
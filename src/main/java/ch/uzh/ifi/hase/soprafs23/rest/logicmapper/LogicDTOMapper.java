@@ -71,6 +71,7 @@ public final class LogicDTOMapper {
         pollCommandGetDTO.setAffectedPlayer(convertPlayerToPlayerGetDTO(pollCommand.getAffectedPlayer()));
         pollCommandGetDTO.setExecutionTime(pollCommand.getExecutionTime());
         pollCommandGetDTO.setMessage(pollCommand.toString());
+        pollCommandGetDTO.setSequence(pollCommand.getSequence());
         return pollCommandGetDTO;
     }
 
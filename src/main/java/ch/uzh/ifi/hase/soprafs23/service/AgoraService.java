@@ -10,18 +10,81 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class AgoraService {
+    // a cached token is handed out only while it stays valid for at least this long
+    private static final Duration MIN_REMAINING_VALIDITY = Duration.ofMinutes(10);
+    // expired tokens of users who never ask again are dropped at most this often, the others are replaced on their next miss
+    private static final Duration SWEEP_INTERVAL = Duration.ofMinutes(10);
+
+    private record TokenKey(Long lobbyId, Long userId) {}
+    private record CachedToken(String token, Instant expiresAt) {}
+
+    private final Map<TokenKey, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final RTCTokenBuilder tokenBuilder = new RTCTokenBuilder();
+    private final Clock clock;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final AtomicReference<Instant> nextSweep = new AtomicReference<>();
+
+    public AgoraService() {
+        this(Clock.systemUTC());
+    }
+
+    public AgoraService(Clock clock) {
+        this.clock = clock;
+    }
 
     //creates Token for VoiceChannel. Same procedure for admin and normal players, admin's token generation automatically creates agora channel
+    //tokens are cached per lobby and user, since clients fetch a token again on every reconnect
     public String createVoiceChannelToken(Lobby lobby, User user) {
-        RTCTokenBuilder newToken = new RTCTokenBuilder();
-        String token = newToken.buildTokenWithUserAccount(lobby.getId().toString(), user.getId().toString(), VoiceChatRole.Role_Publisher);
+        TokenKey key = new TokenKey(lobby.getId(), user.getId());
+        Instant now = clock.instant();
+        CachedToken cached = tokens.get(key);
+        if (cached != null && now.plus(MIN_REMAINING_VALIDITY).isBefore(cached.expiresAt())) {
+            cacheHits.increment();
+            return cached.token();
+        }
+        cacheMisses.increment();
+        sweepExpiredTokens(now);
+
+        String token = tokenBuilder.buildTokenWithUserAccount(lobby.getId().toString(), user.getId().toString(), VoiceChatRole.Role_Publisher);
         if (Objects.equals(token, "")) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         }
+        tokens.put(key, new CachedToken(token, now.plusSeconds(RTCTokenBuilder.getExpirationTimeInSeconds())));
         return token;
     }
+
+    private void sweepExpiredTokens(Instant now) {
+        Instant due = nextSweep.get();
+        if (due == null) {
+            nextSweep.compareAndSet(null, now.plus(SWEEP_INTERVAL));
+            return;
+        }
+        if (now.isBefore(due) || !nextSweep.compareAndSet(due, now.plus(SWEEP_INTERVAL))) {
+            return;
+        }
+        tokens.values().removeIf(t -> !now.isBefore(t.expiresAt()));
+    }
+
+    public long getTokenCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getTokenCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public int getTokenCacheSize() {
+        return tokens.size();
+    }
 }
@@ -0,0 +1,332 @@
+package ch.uzh.ifi.hase.soprafs23.service;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.logic.game.GameObserver;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.LobbyObserver;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.GameGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.logicmapper.LogicDTOMapper;
+
+/**
+ * Pushes lobby and game state to the players of a lobby as server-sent events.
+ * Game events are rendered in the game's mailbox with the same censoring as the GET endpoints
+ * and written by a separate sender pool. Events of the same type are coalesced,
+ * so a slow client only ever receives the latest state instead of a growing backlog.
+ */
+@Service
+public class GameEventService implements GameObserver, LobbyObserver {
+    public static final String LOBBY_EVENT = "lobby";
+    public static final String GAME_EVENT = "game";
+    public static final String POLL_EVENT = "poll";
+    public static final String FINISHED_EVENT = "finished";
+    public static final String DISSOLVED_EVENT = "dissolved";
+    public static final long EMITTER_TIMEOUT_MILLIS = 30L * 60 * 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(GameEventService.class);
+
+    private final GameService gameService;
+    private final Executor sender;
+    private final Supplier<SseEmitter> emitterFactory;
+    private final Map<Long, Map<Long, EventStream>> streams = new ConcurrentHashMap<>();
+    private final Map<Long, Game> games = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GameEventService(GameService gameService) {
+        this(gameService, Executors.newFixedThreadPool(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()), new SenderThreadFactory()),
+            () -> new SseEmitter(EMITTER_TIMEOUT_MILLIS));
+    }
+
+    GameEventService(GameService gameService, Executor sender, Supplier<SseEmitter> emitterFactory) {
+        this.gameService = gameService;
+        this.sender = sender;
+        this.emitterFactory = emitterFactory;
+    }
+
+    /**
+     * Opens an event stream for the player, replacing a previous stream of the same player.
+     * The current lobby state, and the game state once a game runs, are sent right away.
+     */
+    public SseEmitter subscribe(Lobby lobby, Player player) {
+        synchronized (lobby) {
+            if (!lobby.isObserver(this)) {
+                lobby.addObserver(this);
+            }
+        }
+        SseEmitter emitter = emitterFactory.get();
+        Map<Long, EventStream> lobbyStreams = streams.computeIfAbsent(lobby.getId(), id -> new ConcurrentHashMap<>());
+        EventStream stream = new EventStream(player.getId(), emitter, lobbyStreams);
+        EventStream previous = lobbyStreams.put(player.getId(), stream);
+        if (previous != null) {
+            previous.close();
+        }
+        emitter.onCompletion(() -> lobbyStreams.remove(player.getId(), stream));
+        emitter.onTimeout(stream::close);
+        emitter.onError(e -> stream.close());
+
+        stream.publish(LOBBY_EVENT, LogicDTOMapper.convertLobbyToLobbyGetDTO(lobby));
+        Game game = games.get(lobby.getId());
+        if (game != null) {
+            game.getMailbox().execute(() -> publishGameState(game, List.of(stream)));
+        }
+        return emitter;
+    }
+
+    /**
+     * Starts forwarding the events of a newly created game to the streams of its lobby.
+     */
+    public void watchGame(Game game) {
+        games.put(game.getLobby().getId(), game);
+        game.addObserver(this);
+    }
+
+    public int getSubscriberCount(Lobby lobby) {
+        Map<Long, EventStream> lobbyStreams = streams.get(lobby.getId());
+        return lobbyStreams == null ? 0 : lobbyStreams.size();
+    }
+
+    private Collection<EventStream> getStreams(Lobby lobby) {
+        Map<Long, EventStream> lobbyStreams = streams.get(lobby.getId());
+        return lobbyStreams == null ? List.of() : lobbyStreams.values();
+    }
+
+    private void publishGameState(Game game, Collection<EventStream> targets) {
+        if (game.getCurrentStage() == null) {
+            return;
+        }
+        publishGame(game, targets);
+        if (game.isFinished()) {
+            publishWinner(game, targets);
+        } else {
+            publishPoll(game, targets);
+        }
+    }
+
+    private void publishGame(Game game, Collection<EventStream> targets) {
+        if (targets.isEmpty() || game.getCurrentStage() == null) {
+            return;
+        }
+        // the shared part comes from the game's snapshot, each player only adds their private actions
+        GameSnapshot snapshot = gameService.getSnapshot(game);
+        for (EventStream stream : targets) {
+            Player player = game.getLobby().findPlayerById(stream.userId);
+            if (player == null) {
+                continue;
+            }
+            GameGetDTO gameGetDTO = gameService.toGameGetDTO(snapshot, 0);
+            stream.publish(GAME_EVENT, gameService.mergePlayerPollCommandsToGameGetDTO(gameGetDTO, player));
+        }
+    }
+
+    private void publishPoll(Game game, Collection<EventStream> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        Poll poll;
+        try {
+            poll = game.getCurrentPoll();
+        } catch (IllegalStateException e) {
+            return;
+        }
+        GameSnapshot snapshot = gameService.getSnapshot(game);
+        for (EventStream stream : targets) {
+            stream.publish(POLL_EVENT, snapshot.getPoll(poll.getPollParticipant(stream.userId) != null));
+        }
+    }
+
+    private void publishWinner(Game game, Collection<EventStream> targets) {
+        Object winner = LogicDTOMapper.convertFractionToFractionGetDTO(game.getWinner());
+        targets.forEach(stream -> stream.publish(FINISHED_EVENT, winner));
+    }
+
+    private void publishLobby(Lobby lobby) {
+        Collection<EventStream> targets = getStreams(lobby);
+        if (targets.isEmpty()) {
+            return;
+        }
+        Object lobbyGetDTO = LogicDTOMapper.convertLobbyToLobbyGetDTO(lobby);
+        targets.forEach(stream -> stream.publish(LOBBY_EVENT, lobbyGetDTO));
+    }
+
+    @Override
+    public void onNewPoll(Game game) {
+        publishPoll(game, getStreams(game.getLobby()));
+    }
+
+    @Override
+    public void onPollUpdated(Game game) {
+        publishPoll(game, getStreams(game.getLobby()));
+    }
+
+    @Override
+    public void onPollFinished(Game game, Poll poll) {
+        // the next poll or stage is published instead
+    }
+
+    @Override
+    public void onNewStage(Game game) {
+        publishGame(game, getStreams(game.getLobby()));
+    }
+
+    @Override
+    public void onGameFinished(Game game) {
+        Collection<EventStream> targets = getStreams(game.getLobby());
+        publishGame(game, targets);
+        publishWinner(game, targets);
+        games.remove(game.getLobby().getId(), game);
+    }
+
+    @Override
+    public void onPlayerDiedUnrevivable(Game game, Player player) {
+        publishGame(game, getStreams(game.getLobby()));
+    }
+
+    @Override
+    public void onLobbyUpdated(Lobby lobby) {
+        // players who left the lobby lose their stream, like they lose access to the GET endpoints
+        getStreams(lobby).stream()
+            .filter(stream -> lobby.findPlayerById(stream.userId) == null)
+            .toList()
+            .forEach(EventStream::close);
+        publishLobby(lobby);
+    }
+
+    @Override
+    public void onLobbyDissolved(Lobby lobby) {
+        games.remove(lobby.getId());
+        Map<Long, EventStream> lobbyStreams = streams.remove(lobby.getId());
+        if (lobbyStreams != null) {
+            lobbyStreams.values().forEach(stream -> {
+                stream.publish(DISSOLVED_EVENT, lobby.getId());
+                stream.completeAfterPending();
+            });
+        }
+    }
+
+    /**
+     * Pending events of one client, keyed by event name so that only the latest event of each type is kept.
+     */
+    private class EventStream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Map<Long, EventStream> owner;
+        private final Map<String, Object> pending = new LinkedHashMap<>();
+        private boolean draining = false;
+        private boolean completing = false;
+        private boolean closed = false;
+
+        private EventStream(Long userId, SseEmitter emitter, Map<Long, EventStream> owner) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.owner = owner;
+        }
+
+        private void publish(String name, Object data) {
+            synchronized (this) {
+                if (closed || completing) {
+                    return;
+                }
+                // re-inserting moves the event behind those published before it
+                pending.remove(name);
+                pending.put(name, data);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        private void completeAfterPending() {
+            synchronized (this) {
+                completing = true;
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            owner.remove(userId, this);
+            emitter.complete();
+        }
+
+        private void drain() {
+            while (true) {
+                Map<String, Object> events;
+                synchronized (this) {
+                    if (closed) {
+                        draining = false;
+                        return;
+                    }
+                    if (pending.isEmpty()) {
+                        draining = false;
+                        if (completing) {
+                            break;
+                        }
+                        return;
+                    }
+                    events = new LinkedHashMap<>(pending);
+                    pending.clear();
+                }
+                for (Map.Entry<String, Object> event : events.entrySet()) {
+                    if (!send(event.getKey(), event.getValue())) {
+                        return;
+                    }
+                }
+            }
+            close();
+        }
+
+        private boolean send(String name, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Closing event stream of user {}: {}", userId, e.getMessage());
+                synchronized (this) {
+                    draining = false;
+                }
+                close();
+                return false;
+            }
+        }
+    }
+
+    private static class SenderThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "game-events-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package ch.uzh.ifi.hase.soprafs23.service;
 
 import java.util.*;
-import java.util.function.Predicate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 import ch.uzh.ifi.hase.soprafs23.agora.Agora;
+import ch.uzh.ifi.hase.soprafs23.agora.KickingRuleBatch;
 import ch.uzh.ifi.hase.soprafs23.constant.Reason;
+import ch.uzh.ifi.hase.soprafs23.constant.VoteAction;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.FractionGetDTO;
 import org.springframework.http.HttpStatus;
@@ -15,6 +19,7 @@ import org.springframework.web.server.ResponseStatusException;
 import ch.uzh.ifi.hase.soprafs23.entity.User;
 import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
 import ch.uzh.ifi.hase.soprafs23.logic.game.GameObserver;
+import ch.uzh.ifi.hase.soprafs23.logic.game.ScheduledTask;
 import ch.uzh.ifi.hase.soprafs23.logic.game.Scheduler;
 import ch.uzh.ifi.hase.soprafs23.logic.game.StageType;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
@@ -28,12 +33,19 @@ import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.GameGetDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.PollCommandGetDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.PollGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.VoteChangeDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.logicmapper.LogicDTOMapper;
 
 @Service
 @Transactional
 public class GameService implements GameObserver, LobbyObserver{
-    private Map<Long, Game> games = new HashMap<>();
+    private final Map<Long, Game> games = new ConcurrentHashMap<>();
+    // commands never change once logged, so each one is mapped at most once
+    private final Map<PollCommand, PollCommandGetDTO> pollCommandGetDTOs = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<Long, GameSnapshot> snapshots = new ConcurrentHashMap<>();
+    // registered on every new game in addition to this service, e.g. for metrics
+    private final List<GameObserver> gameObservers = new CopyOnWriteArrayList<>();
+    private final LongAdder votesCast = new LongAdder();
 
     /**
      * @pre lobby.getLobbySize() <= Lobby.MAX_SIZE && lobby.getLobbySize() >= Lobby.MIN_SIZE && lobby roles assigned
@@ -42,6 +54,7 @@ public class GameService implements GameObserver, LobbyObserver{
     public Game createNewGame(Lobby lobby) {
         Game game = new Game(lobby);
         game.addObserver(this);
+        gameObservers.forEach(game::addObserver);
         if (!lobby.isObserver(this)) {
             lobby.addObserver(this);
         }
@@ -49,32 +62,125 @@ public class GameService implements GameObserver, LobbyObserver{
         return game;
     }
 
+    public void addGameObserver(GameObserver observer) {
+        gameObservers.add(observer);
+    }
+
+    public Collection<Game> getGames() {
+        return games.values();
+    }
+
+    /**
+     * @return number of votes cast through this service since startup, including votes added by vote changes
+     */
+    public long getVotesCast() {
+        return votesCast.sum();
+    }
+
     public Game getGame(Lobby lobby) {
-        if (!games.containsKey(lobby.getId())) {
+        Game game = games.get(lobby.getId());
+        if (game == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("No game found for lobby with id %d", lobby.getId()));
         }
-        return games.get(lobby.getId());
+        return game;
     }
 
     public GameGetDTO toGameGetDTO(Game game) {
-        List<PollCommand> pollCommands = game.getPollCommands();
-        List<PollCommandGetDTO> pollCommandGetDTOs = pollCommands.stream().map(LogicDTOMapper::convertPollCommandToPollCommandGetDTO).toList();
-        return LogicDTOMapper.convertGameToGameGetDTO(game, pollCommandGetDTOs);
+        return toGameGetDTO(game, 0);
+    }
+
+    /**
+     * @param since sequence of the last action the client has seen, 0 for all actions
+     */
+    public GameGetDTO toGameGetDTO(Game game, long since) {
+        return toGameGetDTO(getSnapshot(game), since);
+    }
+
+    /**
+     * @return copy of the snapshot's shared game that can be merged with a player's commands
+     */
+    GameGetDTO toGameGetDTO(GameSnapshot snapshot, long since) {
+        GameGetDTO shared = snapshot.getGame();
+        GameGetDTO gameGetDTO = new GameGetDTO();
+        gameGetDTO.setFinished(shared.isFinished());
+        gameGetDTO.setPollCount(shared.getPollCount());
+        gameGetDTO.setStage(shared.getStage());
+        gameGetDTO.setLobby(shared.getLobby());
+        gameGetDTO.setActions(actionsSince(shared.getActions(), since));
+        return gameGetDTO;
+    }
+
+    private static List<PollCommandGetDTO> actionsSince(List<PollCommandGetDTO> actions, long since) {
+        int start = actions.size();
+        while (start > 0 && actions.get(start - 1).getSequence() > since) {
+            start--;
+        }
+        return actions.subList(start, actions.size());
+    }
+
+    /**
+     * @pre game is started
+     * @return the snapshot of the game's current state, built in the game's mailbox if the cached one is outdated
+     */
+    GameSnapshot getSnapshot(Game game) {
+        Long lobbyId = game.getLobby().getId();
+        GameSnapshot snapshot = snapshots.get(lobbyId);
+        if (snapshot != null && snapshot.isCurrent(game)) {
+            return snapshot;
+        }
+        return game.getMailbox().call(() -> {
+            GameSnapshot previous = snapshots.get(lobbyId);
+            if (previous != null && previous.isCurrent(game)) {
+                return previous;
+            }
+            GameSnapshot built = GameSnapshot.build(game, previous, this::toPollCommandGetDTOs);
+            snapshots.put(lobbyId, built);
+            return built;
+        });
+    }
+
+    public PollCommandGetDTO toPollCommandGetDTO(PollCommand pollCommand) {
+        return pollCommandGetDTOs.computeIfAbsent(pollCommand, LogicDTOMapper::convertPollCommandToPollCommandGetDTO);
+    }
+
+    public List<PollCommandGetDTO> toPollCommandGetDTOs(List<? extends PollCommand> pollCommands) {
+        return pollCommands.stream().map(this::toPollCommandGetDTO).toList();
+    }
+
+    /**
+     * @return entity tag of the game as seen by this player, changes whenever toGameGetDTO merged with the player's commands would
+     */
+    public String getGameETag(Game game, Player player) {
+        return String.format("g%d-%d-%d", game.getVersion(), game.getLobby().getVersion(), player.getPrivatePollCommands().size());
+    }
+
+    /**
+     * @return entity tag of the poll, participants and other players see different representations
+     */
+    public String getPollETag(Game game, Poll poll, boolean participant) {
+        return String.format("p%d-%d%s", poll.getVersion(), game.getLobby().getVersion(), participant ? "" : "-c");
     }
 
     public List<PollCommandGetDTO> toPollCommandGetDTO(List<PrivatePollCommand> list) {
-        return list.stream().map(LogicDTOMapper::convertPollCommandToPollCommandGetDTO).toList();
+        return toPollCommandGetDTOs(list);
     }
 
     public GameGetDTO mergePlayerPollCommandsToGameGetDTO(GameGetDTO gameGetDTO, Player player) {
+        return mergePlayerPollCommandsToGameGetDTO(gameGetDTO, player, 0);
+    }
+
+    /**
+     * @param since sequence of the last action the client has seen, 0 for all actions
+     */
+    public GameGetDTO mergePlayerPollCommandsToGameGetDTO(GameGetDTO gameGetDTO, Player player, long since) {
         gameGetDTO.setActions(
-            Stream.concat(gameGetDTO.getActions().stream(), toPollCommandGetDTO(player.getPrivatePollCommands()).stream()).toList()
+            Stream.concat(gameGetDTO.getActions().stream(), toPollCommandGetDTOs(player.getPrivatePollCommandsSince(since)).stream()).toList()
         );
         return gameGetDTO;
     }
 
     public void startGame(Game game) {
-        game.startGame();
+        game.getMailbox().execute(game::startGame);
     }
 
     public void validateGameStarted(Game game) {
@@ -92,7 +198,7 @@ public class GameService implements GameObserver, LobbyObserver{
     }
 
     public boolean isPollParticipant(Poll poll, User user) {
-        return poll.getPollParticipants().stream().anyMatch(p->p.getPlayer().getId().equals(user.getId()));
+        return poll.getPollParticipant(user.getId()) != null;
     }
 
     public void validateParticipant(Poll poll, User user) {
@@ -101,8 +207,21 @@ public class GameService implements GameObserver, LobbyObserver{
         }
     }
 
-    public PollGetDTO toPollGetDTO(Poll poll) {
-        return LogicDTOMapper.convertPollToPollGetDTO(poll);
+    public PollGetDTO toPollGetDTO(Game game, Poll poll) {
+        return game.getMailbox().call(() -> LogicDTOMapper.convertPollToPollGetDTO(poll));
+    }
+
+    /**
+     * @return shared view of the poll as a participant or, censored, as any other player sees it; must not be modified
+     */
+    public PollGetDTO toPollGetDTO(Game game, Poll poll, boolean participant) {
+        GameSnapshot snapshot = getSnapshot(game);
+        if (poll.getId().equals(snapshot.getPollId())) {
+            return snapshot.getPoll(participant);
+        }
+        // the poll was replaced since the caller looked it up
+        PollGetDTO pollGetDTO = toPollGetDTO(game, poll);
+        return participant ? pollGetDTO : censorPollGetDTO(pollGetDTO);
     }
 
     public PollGetDTO censorPollGetDTO (PollGetDTO pollGetDTO) {
@@ -118,33 +237,64 @@ public class GameService implements GameObserver, LobbyObserver{
      * @return
      */
     public PollParticipant getParticipant (Poll poll, User user) {
-        return poll.getPollParticipants().stream().filter(p->p.getPlayer().getId().equals(user.getId())).findFirst().get();
+        return poll.getPollParticipant(user.getId());
     }
 
     public PollOption getPollOption(Poll poll, Long pollOptionId) {
-        Predicate<? super PollOption> optionFilter = (p->p.getPlayer().getId().equals(pollOptionId));
-        if (!poll.getPollOptions().stream().anyMatch(optionFilter)) {
+        PollOption pollOption = poll.getPollOption(pollOptionId);
+        if (pollOption == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Selected option is not a valid option for this poll.");
         }
-        return poll.getPollOptions().stream().filter(optionFilter).findFirst().get();
+        return pollOption;
     }
 
-    public void castVote(Poll poll, PollParticipant participant, PollOption option) {
+    public void castVote(Game game, Poll poll, PollParticipant participant, PollOption option) {
         try {
-            poll.castVote(participant, option);
+            game.getMailbox().run(() -> poll.castVote(participant, option));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
         }
+        votesCast.increment();
     }
 
-    public void removeVote(Poll poll, PollParticipant participant, PollOption option) {
+    public void removeVote(Game game, Poll poll, PollParticipant participant, PollOption option) {
         try {
-            poll.removeVote(participant, option);
+            game.getMailbox().run(() -> poll.removeVote(participant, option));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
         }
     }
 
+    /**
+     * Applies all changes of the participant to the poll at once, removals before additions.
+     * Nothing is changed if one of the options does not exist or one of the changes is not allowed.
+     */
+    public void changeVotes(Game game, Poll poll, PollParticipant participant, List<VoteChangeDTO> voteChanges) {
+        // an empty change would still bump the poll version and invalidate every client's ETag
+        if (voteChanges.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No vote changes were given.");
+        }
+        List<PollOption> removedVotes = new ArrayList<>();
+        List<PollOption> addedVotes = new ArrayList<>();
+        for (VoteChangeDTO voteChange : voteChanges) {
+            if (voteChange.getAction() == null || voteChange.getOptionId() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Vote change needs an action and an option.");
+            }
+            PollOption option = getPollOption(poll, voteChange.getOptionId());
+            if (voteChange.getAction() == VoteAction.REMOVE) {
+                removedVotes.add(option);
+            } else {
+                addedVotes.add(option);
+            }
+        }
+        try {
+            game.getMailbox().run(() -> poll.changeVotes(participant, removedVotes, addedVotes));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
+        }
+        votesCast.add(addedVotes.size());
+    }
+
     public void validateGameFinished(Game game) {
         if(!game.isFinished()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Game is not finished yet.");
@@ -163,7 +313,18 @@ public class GameService implements GameObserver, LobbyObserver{
     public void onNewPoll(Game game) {
         Poll poll = game.getCurrentPoll();
         poll.setScheduledFinish(poll.calculateScheduledFinish(Calendar.getInstance()));
-        Scheduler.getInstance().schedule(poll::finish, poll.getDurationSeconds());
+        poll.setFinishOnQuorum(true);
+        poll.setFinishTask(Scheduler.getInstance().schedule(poll::finishIfOpen, poll.getDurationSeconds()));
+    }
+
+    @Override
+    public void onPollUpdated(Game game) {
+        // votes do not affect the poll timer
+    }
+
+    @Override
+    public void onPollFinished(Game game, Poll poll) {
+        // the timer was either due or moved to the quorum
     }
 
     @Override
@@ -174,17 +335,16 @@ public class GameService implements GameObserver, LobbyObserver{
     }
 
     private void applyKickingRules(Game game) {
+        KickingRuleBatch batch = Agora.newBatch(game.getLobby().getId().toString());
         if (game.getCurrentStage().getType() == StageType.Night) {
-            List<Player> villagers = game.getLobby().getPlayersByRole(Villager.class)
+            game.getLobby().getPlayersByRole(Villager.class)
                     .stream()
                     .filter(Player::isAlive)
-                    .toList();
-            for (Player villager : villagers) {
-                Agora.kickVillager(villager, game.getLobby().getId().toString());
-            }
+                    .forEach(batch::kickVillager);
         } else if (game.getCurrentStage().getType() == StageType.Day) {
-            Agora.deleteRules(Reason.KICK_VILLAGER, game.getLobby().getId().toString());
+            batch.deleteRules(Reason.KICK_VILLAGER);
         }
+        batch.dispatch();
     }
 
     @Override
@@ -199,8 +359,25 @@ public class GameService implements GameObserver, LobbyObserver{
 
     @Override
     public void onLobbyDissolved(Lobby lobby) {
-        if (games.containsKey(lobby.getId())) {
-            games.remove(lobby.getId());
+        Game game = games.remove(lobby.getId());
+        snapshots.remove(lobby.getId());
+        if (game != null) {
+            game.getMailbox().execute(() -> cancelPollTimer(game));
+        }
+    }
+
+    @Override
+    public void onLobbyUpdated(Lobby lobby) {
+        // games only react to the lobby being dissolved
+    }
+
+    private void cancelPollTimer(Game game) {
+        if (!game.isStarted() || game.isFinished()) {
+            return;
+        }
+        ScheduledTask finishTask = game.getCurrentPoll().getFinishTask();
+        if (finishTask != null) {
+            finishTask.cancel();
         }
     }
 }
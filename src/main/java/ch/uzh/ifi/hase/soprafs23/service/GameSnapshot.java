@@ -0,0 +1,123 @@
+package ch.uzh.ifi.hase.soprafs23.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.GameGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.PollCommandGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.PollGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.logicmapper.LogicDTOMapper;
+
+/**
+ * Read model of a game for one combination of game, lobby and poll versions.
+ * Built once per state change in the game's mailbox and shared by all readers, so its DTOs must not be modified.
+ * Per-player views only add private actions to a copy of the game or pick the full or censored poll.
+ */
+final class GameSnapshot {
+    private static final long NO_POLL = -1;
+
+    private final Game game;
+    private final long gameVersion;
+    private final long lobbyVersion;
+    private final long pollVersion;
+    private final GameGetDTO gameGetDTO;
+    private final String pollId;
+    private final PollGetDTO pollGetDTO;
+    private final PollGetDTO censoredPollGetDTO;
+
+    private GameSnapshot(Game game, long gameVersion, long lobbyVersion, long pollVersion, GameGetDTO gameGetDTO,
+            String pollId, PollGetDTO pollGetDTO, PollGetDTO censoredPollGetDTO) {
+        this.game = game;
+        this.gameVersion = gameVersion;
+        this.lobbyVersion = lobbyVersion;
+        this.pollVersion = pollVersion;
+        this.gameGetDTO = gameGetDTO;
+        this.pollId = pollId;
+        this.pollGetDTO = pollGetDTO;
+        this.censoredPollGetDTO = censoredPollGetDTO;
+    }
+
+    private static Poll currentPoll(Game game) {
+        try {
+            return game.getCurrentPoll();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @pre game is started and this runs in the game's mailbox
+     * @param previous snapshot of the same lobby whose still current parts are reused, or null
+     * @param actionMapper converts logged commands to DTOs
+     */
+    static GameSnapshot build(Game game, GameSnapshot previous, Function<List<PollCommand>, List<PollCommandGetDTO>> actionMapper) {
+        // versions are read before the DTOs are built, so a concurrent change can only make the snapshot look outdated
+        long gameVersion = game.getVersion();
+        long lobbyVersion = game.getLobby().getVersion();
+        Poll poll = currentPoll(game);
+        long pollVersion = poll == null ? NO_POLL : poll.getVersion();
+        boolean samePlayers = previous != null && previous.game == game && previous.lobbyVersion == lobbyVersion;
+
+        GameGetDTO gameGetDTO;
+        if (samePlayers && previous.gameVersion == gameVersion) {
+            gameGetDTO = previous.gameGetDTO;
+        } else {
+            gameGetDTO = LogicDTOMapper.convertGameToGameGetDTO(game, actionMapper.apply(game.getPollCommands()));
+        }
+
+        PollGetDTO pollGetDTO = null;
+        PollGetDTO censoredPollGetDTO = null;
+        if (samePlayers && previous.pollVersion == pollVersion) {
+            pollGetDTO = previous.pollGetDTO;
+            censoredPollGetDTO = previous.censoredPollGetDTO;
+        } else if (poll != null) {
+            pollGetDTO = LogicDTOMapper.convertPollToPollGetDTO(poll);
+            censoredPollGetDTO = censor(pollGetDTO);
+        }
+        return new GameSnapshot(game, gameVersion, lobbyVersion, pollVersion, gameGetDTO,
+            poll == null ? null : poll.getId(), pollGetDTO, censoredPollGetDTO);
+    }
+
+    private static PollGetDTO censor(PollGetDTO pollGetDTO) {
+        PollGetDTO censored = new PollGetDTO();
+        censored.setId(pollGetDTO.getId());
+        censored.setRole(pollGetDTO.getRole());
+        censored.setQuestion(pollGetDTO.getQuestion());
+        censored.setScheduledFinish(pollGetDTO.getScheduledFinish());
+        censored.setParticipants(List.of());
+        censored.setPollOptions(List.of());
+        return censored;
+    }
+
+    /**
+     * Only reads versions, so it is safe to call outside the game's mailbox.
+     */
+    boolean isCurrent(Game game) {
+        Poll poll = currentPoll(game);
+        return this.game == game
+            && gameVersion == game.getVersion()
+            && lobbyVersion == game.getLobby().getVersion()
+            && pollVersion == (poll == null ? NO_POLL : poll.getVersion());
+    }
+
+    /**
+     * @return game with all public actions, shared between readers
+     */
+    GameGetDTO getGame() {
+        return gameGetDTO;
+    }
+
+    String getPollId() {
+        return pollId;
+    }
+
+    /**
+     * @return shared poll view, with participants and options only for participants
+     */
+    PollGetDTO getPoll(boolean participant) {
+        return participant ? pollGetDTO : censoredPollGetDTO;
+    }
+}
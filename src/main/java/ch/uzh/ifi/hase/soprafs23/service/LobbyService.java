@@ -1,11 +1,13 @@
 package ch.uzh.ifi.hase.soprafs23.service;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 import javax.transaction.Transactional;
 
 import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.LobbyGetDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.LobbySettingsDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.RoleGetDTO;
 import org.springframework.http.HttpStatus;
@@ -24,24 +26,38 @@ import ch.uzh.ifi.hase.soprafs23.rest.logicmapper.LogicEntityMapper;
 public class LobbyService implements LobbyObserver{
     public static final String LOBBYID_PATHVARIABLE = "lobbyId";
 
-    private Map<Long, Lobby> lobbies = new HashMap<>();
+    private final Map<Long, Lobby> lobbies = new ConcurrentHashMap<>();
+    private final Map<Long, Long> lobbyIdsByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> lobbyIdsByAdminId = new ConcurrentHashMap<>();
+    private final Map<Long, CachedLobbyGetDTO> lobbyGetDTOs = new ConcurrentHashMap<>();
 
-    private Long createLobbyId() {
-        Long newId = ThreadLocalRandom.current().nextLong(100000, 999999);
-        if (lobbies.containsKey(newId)) {
-            return createLobbyId();
+    private record CachedLobbyGetDTO(long version, LobbyGetDTO lobbyGetDTO) {}
+
+    private Lobby registerNewLobby(Player admin) {
+        while (true) {
+            Lobby lobby = new Lobby(ThreadLocalRandom.current().nextLong(100000, 999999), admin);
+            lobby.addObserver(this);
+            if (lobbies.putIfAbsent(lobby.getId(), lobby) == null) {
+                return lobby;
+            }
         }
-        return newId;
     }
 
     public Lobby createNewLobby(User creator) {
         Player admin = LogicEntityMapper.createPlayerFromUser(creator);
-        if(lobbies.values().stream().anyMatch(l -> l.getAdmin().equals(admin))) {
+        if(lobbyIdsByAdminId.containsKey(admin.getId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User already has a lobby");
+        }
+        Lobby l = registerNewLobby(admin);
+        if (lobbyIdsByAdminId.putIfAbsent(admin.getId(), l.getId()) != null) {
+            lobbies.remove(l.getId());
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User already has a lobby");
         }
-        Lobby l = new Lobby(createLobbyId(), admin);
-        l.addObserver(this);
-        lobbies.put(l.getId(), l);
+        if (lobbyIdsByUserId.putIfAbsent(admin.getId(), l.getId()) != null) {
+            lobbyIdsByAdminId.remove(admin.getId(), l.getId());
+            lobbies.remove(l.getId());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is already in a lobby.");
+        }
         return l;
     }
 
@@ -57,18 +73,12 @@ public class LobbyService implements LobbyObserver{
     }
 
     public Lobby getLobbyOfUser(Long userId) {
-        return lobbies
-                .values()
-                .stream()
-                .filter(lobby -> lobby.getPlayers().stream().anyMatch(player -> Objects.equals(player.getId(), userId)))
-                .findFirst()
-                .orElse(null);
+        Long lobbyId = lobbyIdsByUserId.get(userId);
+        return lobbyId == null ? null : lobbies.get(lobbyId);
     }
 
     private boolean userInALobby(User user) {
-        return lobbies.values().stream().anyMatch(
-            l -> l.getPlayers().stream().anyMatch(p->p.getId().equals(user.getId()))
-        );
+        return lobbyIdsByUserId.containsKey(user.getId());
     }
 
     private boolean userIsInLobby(User user, Lobby lobby) {
@@ -81,6 +91,27 @@ public class LobbyService implements LobbyObserver{
         }
     }
 
+    /**
+     * @return DTO shared by all readers until the lobby changes, must not be modified
+     */
+    public LobbyGetDTO toLobbyGetDTO(Lobby lobby) {
+        CachedLobbyGetDTO cached = lobbyGetDTOs.get(lobby.getId());
+        // the version is read before converting, so a concurrent change can only make the entry look outdated
+        long version = lobby.getVersion();
+        if (cached != null && cached.version() == version) {
+            return cached.lobbyGetDTO();
+        }
+        LobbyGetDTO lobbyGetDTO = LogicDTOMapper.convertLobbyToLobbyGetDTO(lobby);
+        if (lobbies.containsKey(lobby.getId())) {
+            lobbyGetDTOs.put(lobby.getId(), new CachedLobbyGetDTO(version, lobbyGetDTO));
+        }
+        return lobbyGetDTO;
+    }
+
+    public String getLobbyETag(Lobby lobby) {
+        return String.format("l%d", lobby.getVersion());
+    }
+
     /**
      * @pre user is in lobby
      * @param user
@@ -98,19 +129,21 @@ public class LobbyService implements LobbyObserver{
     }
 
     public void joinUserToLobby(User user, Lobby lobby) {
-        if (lobby.getLobbySize() >= Lobby.MAX_SIZE) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lobby is already full.");
+        synchronized (lobby) {
+            if (lobby.getLobbySize() >= Lobby.MAX_SIZE) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lobby is already full.");
+            }
+            if (!lobby.isOpen()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lobby is closed.");
+            }
+            if (userIsInLobby(user, lobby)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is already in this lobby.");
+            }
+            if (userInALobby(user) || lobbyIdsByUserId.putIfAbsent(user.getId(), lobby.getId()) != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is already in a lobby.");
+            }
+            lobby.addPlayer(LogicEntityMapper.createPlayerFromUser(user));
         }
-        if (!lobby.isOpen()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lobby is closed.");
-        }
-        if (userIsInLobby(user, lobby)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is already in this lobby.");
-        }
-        if (userInALobby(user)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is already in a lobby.");
-        }
-        lobby.addPlayer(LogicEntityMapper.createPlayerFromUser(user));
     }
 
     /**
@@ -119,12 +152,17 @@ public class LobbyService implements LobbyObserver{
      * @param lobby
      */
     public void removeUserFromLobby(User user, Lobby lobby) {
-        Player player = getPlayerOfUser(user, lobby);
-        lobby.removePlayer(player);
+        synchronized (lobby) {
+            Player player = getPlayerOfUser(user, lobby);
+            lobby.removePlayer(player);
+            lobbyIdsByUserId.remove(user.getId(), lobby.getId());
+        }
     }
 
     public void dissolveLobby(Lobby lobby) {
-        lobby.dissolve();
+        synchronized (lobby) {
+            lobby.dissolve();
+        }
     }
 
     public boolean userIsAdmin(User user, Lobby lobby) {
@@ -198,7 +236,10 @@ public class LobbyService implements LobbyObserver{
     }
 
     public void reInstatiatePlayers(Lobby lobby) {
-        lobby.reInstatiatePlayers();
+        synchronized (lobby) {
+            lobby.reInstatiatePlayers();
+            lobby.getPlayers().forEach(player -> lobbyIdsByUserId.put(player.getId(), lobby.getId()));
+        }
     }
 
     /**
@@ -207,12 +248,25 @@ public class LobbyService implements LobbyObserver{
      */
     public void removeLobby(Lobby lobby) {
         lobbies.remove(lobby.getId());
+        removeLobbyFromIndex(lobby);
+    }
+
+    private void removeLobbyFromIndex(Lobby lobby) {
+        lobby.getPlayers().forEach(player -> lobbyIdsByUserId.remove(player.getId(), lobby.getId()));
+        lobbyIdsByAdminId.remove(lobby.getAdmin().getId(), lobby.getId());
     }
 
     @Override
     public void onLobbyDissolved(Lobby lobby) {
-        if (lobbies.containsKey(lobby.getId())) {
+        synchronized (lobby) {
             lobbies.remove(lobby.getId());
+            removeLobbyFromIndex(lobby);
+            lobbyGetDTOs.remove(lobby.getId());
         }
     }
+
+    @Override
+    public void onLobbyUpdated(Lobby lobby) {
+        // the index is maintained by join and remove
+    }
 }
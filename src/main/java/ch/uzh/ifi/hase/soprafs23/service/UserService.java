@@ -30,6 +30,8 @@ public class UserService {
 
     private final UserRepository userRepository;
 
+    private final UserTokenCache tokenCache = new UserTokenCache();
+
     public UserService(@Qualifier("userRepository") UserRepository userRepository) {
         this.userRepository = userRepository;
     }
@@ -46,6 +48,7 @@ public class UserService {
 
         newUser = userRepository.save(newUser);
         userRepository.flush();
+        tokenCache.put(newUser);
 
         log.debug("Created Information for User: {}", newUser);
         return newUser;
@@ -60,9 +63,11 @@ public class UserService {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "The password provided is not correct.");
         }
         else {
+            tokenCache.invalidate(userByUsername.getToken());
             userByUsername.setToken(UUID.randomUUID().toString());
             userRepository.save(userByUsername);
             userRepository.flush();
+            tokenCache.put(userByUsername);
             return userByUsername;
         }
     }
@@ -76,8 +81,17 @@ public class UserService {
     }
 
     public User getUserByToken(String token) {
-        validateToken(token);
-        return userRepository.findByToken(token);
+        User userByToken = tokenCache.get(token);
+        if (userByToken == null) {
+            // a login during the lookup revokes the token, so the loaded user is only cached if nothing was invalidated meanwhile
+            long invalidationStamp = tokenCache.getInvalidationStamp();
+            userByToken = userRepository.findByToken(token);
+            if (userByToken == null) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authorization failed. User with this token does not exist.");
+            }
+            tokenCache.putLoaded(token, userByToken, invalidationStamp);
+        }
+        return userByToken;
     }
 
     public void updateUser(User updatedUser, Long id) throws ParseException {
@@ -96,13 +110,15 @@ public class UserService {
 
         userRepository.save(userById);
         userRepository.flush();
+        tokenCache.put(userById);
     }
 
     public void validateToken(String token){
-        User userByToken = userRepository.findByToken(token);
-        if (userByToken == null){
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authorization failed. User with this token does not exist.");
-        }
+        getUserByToken(token);
+    }
+
+    public UserTokenCache getTokenCache() {
+        return tokenCache;
     }
 
     public void validateTokenMatch(User user, String token){
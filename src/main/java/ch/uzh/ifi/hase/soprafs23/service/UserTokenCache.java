@@ -0,0 +1,167 @@
+package ch.uzh.ifi.hase.soprafs23.service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.uzh.ifi.hase.soprafs23.entity.User;
+
+/**
+ * Bounded cache from session token to user that evicts approximately least recently used entries.
+ * Every authenticated request resolves its token, so this sits in front of UserRepository.findByToken.
+ * Lookups take no lock. Eviction is a clock: entries wait in insertion order, and one that was read
+ * since the hand last passed gets a second chance instead of being evicted.
+ */
+public class UserTokenCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final Map<String, Entry> users = new ConcurrentHashMap<>();
+    // entries in the order the clock hand visits them, including removed ones that are dropped once reached
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static class Entry {
+        private final String token;
+        private final User user;
+        private volatile boolean referenced = false;
+
+        private Entry(String token, User user) {
+            this.token = token;
+            this.user = user;
+        }
+    }
+
+    public UserTokenCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public UserTokenCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1.");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the cached user for this token, or null if the token is not cached
+     */
+    public User get(String token) {
+        Entry entry = users.get(token);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return entry.user;
+    }
+
+    public void put(User user) {
+        if (user == null || user.getToken() == null) {
+            return;
+        }
+        insert(user.getToken(), user);
+    }
+
+    /**
+     * Caches a user that was loaded from the repository for the token, unless a token was invalidated since the stamp was taken.
+     * The loaded user may then carry a token that was revoked in the meantime.
+     * @param invalidationStamp value of {@link #getInvalidationStamp()} from before the user was loaded
+     */
+    public void putLoaded(String token, User user, long invalidationStamp) {
+        if (user == null || !token.equals(user.getToken()) || invalidations.get() != invalidationStamp) {
+            return;
+        }
+        Entry entry = insert(token, user);
+        // an invalidation between the check and the insert may have missed the new entry
+        if (invalidations.get() != invalidationStamp) {
+            users.remove(token, entry);
+        }
+    }
+
+    public long getInvalidationStamp() {
+        return invalidations.get();
+    }
+
+    private Entry insert(String token, User user) {
+        Entry entry = new Entry(token, user);
+        users.put(token, entry);
+        clock.add(entry);
+        clockSize.incrementAndGet();
+        if (needsEviction()) {
+            evict();
+        }
+        return entry;
+    }
+
+    // the clock also holds replaced and invalidated entries, so it is swept once it grows well beyond the capacity
+    private boolean needsEviction() {
+        return users.size() > capacity || clockSize.get() > 2 * capacity;
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            while (needsEviction()) {
+                Entry entry = clock.poll();
+                if (entry == null) {
+                    return;
+                }
+                clockSize.decrementAndGet();
+                if (users.get(entry.token) != entry) {
+                    continue;
+                }
+                if (users.size() > capacity && !entry.referenced) {
+                    if (users.remove(entry.token, entry)) {
+                        evictions.increment();
+                    }
+                    continue;
+                }
+                if (users.size() > capacity) {
+                    entry.referenced = false;
+                }
+                clock.add(entry);
+                clockSize.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidate(String token) {
+        if (token != null) {
+            invalidations.incrementAndGet();
+            users.remove(token);
+        }
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,19 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import java.util.Optional;
+import java.util.Random;
+
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
+
+/**
+ * Decides how a simulated player votes.
+ */
+public interface BotStrategy {
+    /**
+     * @pre voter.getRemainingVotes() > 0
+     * @return option to vote for, or empty to abstain
+     */
+    Optional<PollOption> chooseVote(Poll poll, PollParticipant voter, Random random);
+}
@@ -0,0 +1,29 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import java.util.Optional;
+import java.util.Random;
+
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
+
+/**
+ * Votes for the option with the most votes so far, and randomly while nobody has voted.
+ */
+public class FollowLeaderStrategy implements BotStrategy {
+    private final BotStrategy fallback = new RandomVoteStrategy();
+
+    @Override
+    public Optional<PollOption> chooseVote(Poll poll, PollParticipant voter, Random random) {
+        PollOption leader = null;
+        int leaderVotes = 0;
+        for (PollOption pollOption : poll.getPollOptions()) {
+            int votes = poll.getVoteCount(pollOption);
+            if (votes > leaderVotes) {
+                leader = pollOption;
+                leaderVotes = votes;
+            }
+        }
+        return leader == null ? fallback.chooseVote(poll, voter, random) : Optional.of(leader);
+    }
+}
@@ -0,0 +1,161 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.logic.game.GameMailbox;
+import ch.uzh.ifi.hase.soprafs23.logic.game.GameObserver;
+import ch.uzh.ifi.hase.soprafs23.logic.game.StageType;
+import ch.uzh.ifi.hase.soprafs23.logic.game.VirtualScheduler;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
+
+/**
+ * Plays complete games without a server: bots vote through a BotStrategy and all timers run on a virtual clock.
+ * One simulator plays one game at a time on the calling thread, so parallel runners use one simulator per thread.
+ */
+public class GameSimulator {
+    private static final com.sun.management.ThreadMXBean threadBean = getThreadBean();
+    // a game that needs more timer events than this is considered stuck
+    private static final int MAX_EVENTS_PER_PLAYER = 1000;
+
+    private final BotStrategy strategy;
+
+    public GameSimulator(BotStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * @pre lobbySize >= Lobby.MIN_SIZE
+     * @param seed seeds the role assignment, the tie decisions and the votes of the bots, so a seed always plays the same game
+     */
+    public SimulatedGame play(int lobbySize, long seed) {
+        VirtualScheduler scheduler = new VirtualScheduler();
+        Random seeds = new Random(seed);
+        Lobby lobby = new Lobby(seed, new Player(0L, "bot-0"), scheduler, new Random(seeds.nextLong()));
+        for (long id = 1; id < lobbySize; id++) {
+            lobby.addPlayer(new Player(id, "bot-" + id));
+        }
+        Game game = new Game(lobby, new GameMailbox(Runnable::run));
+        lobby.instantiateRoles(lobby::getAlivePlayers, lobby::addPlayerToRole, game::getCurrentStagePollCommands, game::removePollCommandFromCurrentStage, game::addPollCommandToCurrentStage, lobby::getRolesOfPlayer);
+        lobby.assignRoles();
+
+        BotDriver driver = new BotDriver(scheduler, new Random(seeds.nextLong()));
+        game.addObserver(driver);
+        game.startGame();
+        int maxEvents = MAX_EVENTS_PER_PLAYER * lobbySize;
+        for (int events = 0; !game.isFinished(); events++) {
+            if (events > maxEvents || !(driver.voteRound() || scheduler.runNext())) {
+                throw new IllegalStateException(String.format("Simulated game with %d players and seed %d did not finish", lobbySize, seed));
+            }
+        }
+        return new SimulatedGame(lobbySize, game.getWinner().getName(), game.getPollCount(),
+            driver.stageCounts, driver.stageAllocatedBytes, scheduler.nowMillis());
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return threadBean == null ? -1 : threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Arms the finish timers of new polls like GameService does and lets the bots vote in the current poll.
+     */
+    private class BotDriver implements GameObserver {
+        private final VirtualScheduler scheduler;
+        private final Random random;
+        private final long[] stageCounts = new long[StageType.values().length];
+        private final long[] stageAllocatedBytes = new long[StageType.values().length];
+        private StageType currentStageType;
+        private long stageStartBytes;
+        private Poll currentPoll;
+
+        BotDriver(VirtualScheduler scheduler, Random random) {
+            this.scheduler = scheduler;
+            this.random = random;
+        }
+
+        /**
+         * Every bot of the current poll casts its remaining votes.
+         * Also covers polls whose participants changed, like the mayor's tie poll.
+         * @return true if a vote was cast
+         */
+        boolean voteRound() {
+            if (currentPoll == null || currentPoll.isFinished()) {
+                return false;
+            }
+            Poll poll = currentPoll;
+            boolean voted = false;
+            for (PollParticipant voter : poll.getPollParticipants()) {
+                while (voter.getRemainingVotes() > 0 && !poll.isFinished() && castVote(poll, voter)) {
+                    voted = true;
+                }
+            }
+            return voted;
+        }
+
+        private boolean castVote(Poll poll, PollParticipant voter) {
+            return strategy.chooseVote(poll, voter, random).map(pollOption -> {
+                try {
+                    poll.castVote(voter, pollOption);
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    // e.g. a second vote for the same option of a distinct poll
+                    return false;
+                }
+            }).orElse(false);
+        }
+
+        @Override
+        public void onNewPoll(Game game) {
+            currentPoll = game.getCurrentPoll();
+            currentPoll.setFinishOnQuorum(true);
+            currentPoll.setFinishTask(scheduler.schedule(currentPoll::finishIfOpen, currentPoll.getDurationSeconds()));
+        }
+
+        @Override
+        public void onPollUpdated(Game game) {
+        }
+
+        @Override
+        public void onPollFinished(Game game, Poll poll) {
+        }
+
+        @Override
+        public void onNewStage(Game game) {
+            finishStage();
+            currentStageType = game.getCurrentStage().getType();
+            stageCounts[currentStageType.ordinal()]++;
+        }
+
+        @Override
+        public void onGameFinished(Game game) {
+            finishStage();
+            currentStageType = null;
+        }
+
+        @Override
+        public void onPlayerDiedUnrevivable(Game game, Player player) {
+        }
+
+        private void finishStage() {
+            long now = allocatedBytes();
+            if (currentStageType != null) {
+                int type = currentStageType.ordinal();
+                stageAllocatedBytes[type] = now < 0 ? -1 : stageAllocatedBytes[type] + now - stageStartBytes;
+            }
+            stageStartBytes = now;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
+
+/**
+ * Votes for a uniformly random option.
+ */
+public class RandomVoteStrategy implements BotStrategy {
+
+    @Override
+    public Optional<PollOption> chooseVote(Poll poll, PollParticipant voter, Random random) {
+        List<PollOption> pollOptions = new ArrayList<>(poll.getPollOptions());
+        if (pollOptions.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(pollOptions.get(random.nextInt(pollOptions.size())));
+    }
+}
@@ -0,0 +1,26 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.StageType;
+
+/**
+ * Outcome of one simulated game.
+ * @param stageCounts number of stages per StageType ordinal
+ * @param stageAllocatedBytes bytes allocated by the simulating thread per StageType ordinal, -1 if not measurable
+ * @param virtualMillis game duration on the virtual clock
+ */
+public record SimulatedGame(
+    int lobbySize,
+    String winner,
+    int polls,
+    long[] stageCounts,
+    long[] stageAllocatedBytes,
+    long virtualMillis
+) {
+    public long getStageCount(StageType type) {
+        return stageCounts[type.ordinal()];
+    }
+
+    public long getStageAllocatedBytes(StageType type) {
+        return stageAllocatedBytes[type.ordinal()];
+    }
+}
@@ -0,0 +1,28 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Command line entry point of the game simulation.
+ * Arguments: games per lobby size, comma separated lobby sizes, strategy (random or leader), seed.
+ */
+public class SimulationMain {
+
+    public static void main(String[] args) {
+        long gamesPerSize = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        List<Integer> lobbySizes = Arrays.stream((args.length > 1 ? args[1] : "5,8,12,20").split(","))
+            .map(Integer::valueOf)
+            .toList();
+        Supplier<BotStrategy> strategy = args.length > 2 && args[2].equals("leader") ? FollowLeaderStrategy::new : RandomVoteStrategy::new;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        SimulationRunner runner = new SimulationRunner(Runtime.getRuntime().availableProcessors(), strategy);
+        try {
+            System.out.print(runner.run(lobbySizes, gamesPerSize, seed));
+        } finally {
+            runner.shutdown();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.StageType;
+
+/**
+ * Aggregated results of simulated games: throughput, allocation per stage and win rate by lobby size.
+ * Not thread-safe, parallel runs collect into one report per thread and merge them.
+ */
+public class SimulationReport {
+    private long games;
+    private long polls;
+    private long virtualMillis;
+    private long elapsedNanos;
+    private boolean allocationMeasured = true;
+    private final long[] stageCounts = new long[StageType.values().length];
+    private final long[] stageAllocatedBytes = new long[StageType.values().length];
+    private final Map<Integer, Map<String, Long>> winsByLobbySize = new TreeMap<>();
+
+    public void add(SimulatedGame game) {
+        games++;
+        polls += game.polls();
+        virtualMillis += game.virtualMillis();
+        for (int i = 0; i < stageCounts.length; i++) {
+            stageCounts[i] += game.stageCounts()[i];
+            stageAllocatedBytes[i] += game.stageAllocatedBytes()[i];
+            allocationMeasured &= game.stageAllocatedBytes()[i] >= 0;
+        }
+        winsByLobbySize.computeIfAbsent(game.lobbySize(), size -> new TreeMap<>()).merge(game.winner(), 1L, Long::sum);
+    }
+
+    public SimulationReport merge(SimulationReport other) {
+        games += other.games;
+        polls += other.polls;
+        virtualMillis += other.virtualMillis;
+        allocationMeasured &= other.allocationMeasured;
+        for (int i = 0; i < stageCounts.length; i++) {
+            stageCounts[i] += other.stageCounts[i];
+            stageAllocatedBytes[i] += other.stageAllocatedBytes[i];
+        }
+        other.winsByLobbySize.forEach((size, wins) -> {
+            Map<String, Long> ownWins = winsByLobbySize.computeIfAbsent(size, s -> new TreeMap<>());
+            wins.forEach((winner, count) -> ownWins.merge(winner, count, Long::sum));
+        });
+        return this;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getPolls() {
+        return polls;
+    }
+
+    public long getStageCount(StageType type) {
+        return stageCounts[type.ordinal()];
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return average bytes allocated per stage of the type, -1 if the JVM cannot measure allocation
+     */
+    public double getAllocatedBytesPerStage(StageType type) {
+        long count = stageCounts[type.ordinal()];
+        if (!allocationMeasured) {
+            return -1;
+        }
+        return count == 0 ? 0 : (double) stageAllocatedBytes[type.ordinal()] / count;
+    }
+
+    /**
+     * @return share of the games with this lobby size the fraction won, 0 if none were played
+     */
+    public double getWinRate(int lobbySize, String fraction) {
+        Map<String, Long> wins = winsByLobbySize.getOrDefault(lobbySize, Map.of());
+        long total = wins.values().stream().mapToLong(Long::longValue).sum();
+        return total == 0 ? 0 : (double) wins.getOrDefault(fraction, 0L) / total;
+    }
+
+    public Map<Integer, Map<String, Long>> getWinsByLobbySize() {
+        return winsByLobbySize;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("games: %d in %.1f s, %.0f games/s%n", games, elapsedNanos / 1e9, getGamesPerSecond()));
+        report.append(String.format("polls: %d, %.1f per game, %.1f virtual minutes per game%n",
+            polls, games == 0 ? 0 : (double) polls / games,
+            games == 0 ? 0 : (double) virtualMillis / games / TimeUnit.MINUTES.toMillis(1)));
+        for (StageType type : StageType.values()) {
+            report.append(String.format("%s stages: %d, %.0f bytes allocated per stage%n",
+                type, getStageCount(type), getAllocatedBytesPerStage(type)));
+        }
+        winsByLobbySize.forEach((size, wins) -> {
+            report.append(String.format("lobby size %d:", size));
+            wins.keySet().forEach(winner -> report.append(String.format(" %s %.1f%%", winner, 100 * getWinRate(size, winner))));
+            report.append(System.lineSeparator());
+        });
+        return report.toString();
+    }
+}
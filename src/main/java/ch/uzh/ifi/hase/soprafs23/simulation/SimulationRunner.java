@@ -0,0 +1,42 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+
+/**
+ * Plays many simulated games in parallel on a fork/join pool.
+ * Game i of a run uses seed + i, so every game of a run is reproducible.
+ */
+public class SimulationRunner {
+    private final ForkJoinPool pool;
+    private final Supplier<BotStrategy> strategySupplier;
+
+    public SimulationRunner(int parallelism, Supplier<BotStrategy> strategySupplier) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.strategySupplier = strategySupplier;
+    }
+
+    /**
+     * Plays gamesPerSize games for every lobby size.
+     * @pre gamesPerSize >= 0 && all lobbySizes >= Lobby.MIN_SIZE
+     */
+    public SimulationReport run(List<Integer> lobbySizes, long gamesPerSize, long seed) {
+        long start = System.nanoTime();
+        ThreadLocal<GameSimulator> simulators = ThreadLocal.withInitial(() -> new GameSimulator(strategySupplier.get()));
+        long games = gamesPerSize * lobbySizes.size();
+        SimulationReport report = pool.submit(() -> LongStream.range(0, games)
+            .parallel()
+            .mapToObj(i -> simulators.get().play(lobbySizes.get((int) (i % lobbySizes.size())), seed + i))
+            .collect(Collector.of(SimulationReport::new, SimulationReport::add, SimulationReport::merge)))
+            .join();
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,46 @@
+package ch.uzh.ifi.hase.soprafs23;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadsTest {
+
+    // set for the whole test task when running with -PvirtualThreads
+    private String previousProperty;
+
+    @BeforeEach
+    void saveProperty() {
+        previousProperty = System.getProperty(VirtualThreads.PROPERTY);
+    }
+
+    @AfterEach
+    void restoreProperty() {
+        if (previousProperty == null) {
+            System.clearProperty(VirtualThreads.PROPERTY);
+        } else {
+            System.setProperty(VirtualThreads.PROPERTY, previousProperty);
+        }
+    }
+
+    @Test
+    void testNewPerTaskExecutor_notRequested() {
+        System.setProperty(VirtualThreads.PROPERTY, "false");
+        assertTrue(VirtualThreads.newPerTaskExecutor("test-").isEmpty());
+    }
+
+    @Test
+    void testNewPerTaskExecutor_requested() {
+        System.setProperty(VirtualThreads.PROPERTY, "true");
+        Optional<ExecutorService> executor = VirtualThreads.newPerTaskExecutor("test-");
+        // falls back to platform threads on JDKs without virtual threads
+        assertEquals(Runtime.version().feature() >= 21, executor.isPresent());
+        executor.ifPresent(ExecutorService::shutdown);
+    }
+}
@@ -0,0 +1,224 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class AgoraClientTest {
+    private HttpServer server;
+    private URI uri;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/kicking-rule");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private AgoraClient createClient(int maxConcurrentRequests, int maxRetries) {
+        return new AgoraClient("Basic test", maxConcurrentRequests, Duration.ofSeconds(2), maxRetries, Duration.ofMillis(10));
+    }
+
+    @Test
+    void testSend_postsBodyWithAuthorization() {
+        AtomicReference<String> receivedBody = new AtomicReference<>();
+        AtomicReference<String> receivedAuthorization = new AtomicReference<>();
+        server.createContext("/kicking-rule", exchange -> {
+            receivedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            receivedAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            respond(exchange, 200, "{\"status\":\"success\"}");
+        });
+
+        JsonNode response = createClient(2, 0).send(HttpMethod.POST, uri, "{\"uid\":1}").join();
+
+        assertEquals("success", response.get("status").asText());
+        assertEquals("{\"uid\":1}", receivedBody.get());
+        assertEquals("Basic test", receivedAuthorization.get());
+    }
+
+    @Test
+    void testSend_retriesServerErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+        server.createContext("/kicking-rule", exchange -> {
+            if (attempts.incrementAndGet() < 3) {
+                respond(exchange, 503, "{}");
+            } else {
+                respond(exchange, 200, "{\"rules\":[]}");
+            }
+        });
+
+        JsonNode response = createClient(2, 3).send(HttpMethod.GET, uri, "").join();
+
+        assertEquals(3, attempts.get());
+        assertTrue(response.get("rules").isEmpty());
+    }
+
+    @Test
+    void testSend_givesUpAfterMaxRetries() {
+        AtomicInteger attempts = new AtomicInteger();
+        server.createContext("/kicking-rule", exchange -> {
+            attempts.incrementAndGet();
+            respond(exchange, 500, "{}");
+        });
+
+        CompletableFuture<JsonNode> response = createClient(2, 2).send(HttpMethod.GET, uri, "");
+
+        CompletionException e = assertThrows(CompletionException.class, response::join);
+        assertTrue(e.getCause() instanceof IOException);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testSend_postRetriesOnlyUnprocessedResponses() {
+        AtomicInteger attempts = new AtomicInteger();
+        server.createContext("/kicking-rule", exchange -> {
+            int attempt = attempts.incrementAndGet();
+            respond(exchange, attempt == 1 ? 429 : attempt == 2 ? 503 : 500, "{}");
+        });
+
+        CompletableFuture<JsonNode> response = createClient(2, 3).send(HttpMethod.POST, uri, "{}");
+
+        CompletionException e = assertThrows(CompletionException.class, response::join);
+        assertTrue(e.getCause() instanceof IOException);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testSend_postDoesNotRetryTimeouts() {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/kicking-rule", exchange -> {
+            attempts.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        });
+        AgoraClient client = new AgoraClient("Basic test", 1, Duration.ofMillis(200), 3, Duration.ofMillis(10));
+
+        CompletionException e = assertThrows(CompletionException.class, () -> client.send(HttpMethod.POST, uri, "{}").join());
+        release.countDown();
+        assertTrue(e.getCause() instanceof HttpTimeoutException);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testSend_doesNotRetryClientErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+        server.createContext("/kicking-rule", exchange -> {
+            attempts.incrementAndGet();
+            respond(exchange, 400, "{\"message\":\"invalid\"}");
+        });
+
+        JsonNode response = createClient(2, 3).send(HttpMethod.POST, uri, "{}").join();
+
+        assertEquals("invalid", response.get("message").asText());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testSend_timesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/kicking-rule", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        });
+        AgoraClient client = new AgoraClient("Basic test", 1, Duration.ofMillis(200), 0, Duration.ofMillis(10));
+
+        CompletionException e = assertThrows(CompletionException.class, () -> client.send(HttpMethod.GET, uri, "").join());
+        release.countDown();
+        assertTrue(e.getCause() instanceof HttpTimeoutException);
+    }
+
+    @Test
+    void testSend_boundsConcurrentRequests() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        server.createContext("/kicking-rule", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            respond(exchange, 200, "{}");
+        });
+        AgoraClient client = createClient(2, 0);
+
+        List<CompletableFuture<JsonNode>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(client.send(HttpMethod.POST, uri, "{}"));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+
+        assertTrue(maxInFlight.get() <= 2, "at most two requests may be in flight, saw " + maxInFlight.get());
+    }
+
+    @Test
+    void testSend_completesOffCallingThread() {
+        server.createContext("/kicking-rule", exchange -> {
+            try {
+                // answer only after the callback below is attached
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        });
+        Thread caller = Thread.currentThread();
+
+        Thread completing = createClient(1, 0).send(HttpMethod.GET, uri, "")
+            .thenApply(response -> Thread.currentThread())
+            .join();
+
+        assertTrue(completing != caller);
+        assertTrue(completing.getName().startsWith("agora-client-"));
+    }
+}
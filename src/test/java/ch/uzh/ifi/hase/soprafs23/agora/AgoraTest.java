@@ -14,6 +14,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,14 +23,14 @@ public class AgoraTest {
 
     private JsonNode createSampleKickVillagerRule() throws IOException, InterruptedException{
         Player player = new Player((long) 123, "John");
-        Agora.kickVillager(player, "Testchannel");
+        Agora.kickVillager(player, "Testchannel").join();
         String expectedRequestBody = "{\"uid\":123,\"cname\":\"Testchannel\",\"privileges\":[\"join_channel\"],\"reason\":1,\"appid\":\"2d64cdbec0324225b28f83ed19f75397\",\"time_in_seconds\":10}";
         return Agora.createHttpRequest(HttpMethod.POST, expectedRequestBody);
     }
 
     private JsonNode createSampleMuteDeadRule() throws IOException, InterruptedException{
         Player player = new Player((long) 1234, "Eggmann");
-        Agora.muteDeadPlayer(player, "Testchannel");
+        Agora.muteDeadPlayer(player, "Testchannel").join();
         String expectedRequestBody = "{\"uid\":1234,\"cname\":\"Testchannel\",\"privileges\":[\"publish_audio\"],\"reason\":3,\"appid\":\"2d64cdbec0324225b28f83ed19f75397\",\"time_in_seconds\":10}";
         return Agora.createHttpRequest(HttpMethod.POST, expectedRequestBody);
     }
@@ -67,8 +68,8 @@ public class AgoraTest {
         createSampleMuteDeadRule();
         createSampleKickVillagerRule();
 
-        Agora.deleteRules(Reason.KICK_VILLAGER, "Testchannel");
-        Agora.deleteRules(Reason.MUTE_DEAD, "Testchannel");
+        Agora.deleteRules(Reason.KICK_VILLAGER, "Testchannel").join();
+        Agora.deleteRules(Reason.MUTE_DEAD, "Testchannel").join();
 
         JsonNode jsonNode = Agora.getRules();
         List<JsonNode> rules = StreamSupport.stream(jsonNode.spliterator(), false)
@@ -81,7 +82,7 @@ public class AgoraTest {
     @Test
     void testKickVillager() throws IOException, InterruptedException {
         Player player = new Player((long) 123, "John");
-        Agora.kickVillager(player, "Testchannel");
+        Agora.kickVillager(player, "Testchannel").join();
         String expectedRequestBody = "{\"uid\":123,\"privileges\":[\"join_channel\"],\"reason\":1,\"appid\":\"2d64cdbec0324225b28f83ed19f75397\",\"time_in_seconds\":10}";
         JsonNode jsonNode = Agora.createHttpRequest(HttpMethod.POST, expectedRequestBody);
         assertTrue(jsonNode.toString().contains("success"));
@@ -90,7 +91,7 @@ public class AgoraTest {
     @Test
     void testDeleteAllRules() throws IOException, InterruptedException{
         createMultipleRules();
-        Agora.deleteAllRules("Testchannel");
+        Agora.deleteAllRules("Testchannel").join();
         JsonNode jsonNode = Agora.getRules();
         List<JsonNode> rules = StreamSupport.stream(jsonNode.spliterator(), false)
                 .filter(r -> r.get("cname").asText() == "Testchannel")
@@ -102,9 +103,32 @@ public class AgoraTest {
     @Test
     void testMuteDeadPlayer() throws IOException, InterruptedException {
         Player player = new Player((long) 123, "John");
-        Agora.muteDeadPlayer(player, "Testchannel");
+        Agora.muteDeadPlayer(player, "Testchannel").join();
         String expectedRequestBody = "{\"uid\":123,\"privileges\":[\"publish_audio\"],\"reason\":3,\"appid\":\"2d64cdbec0324225b28f83ed19f75397\",\"time_in_seconds\":10}";
         JsonNode jsonNode = Agora.createHttpRequest(HttpMethod.POST, expectedRequestBody);
         assertTrue(jsonNode.toString().contains("success"));
     }
+
+    @Test
+    void testDeleteRulesById_continuesAfterFailedDeletion() {
+        List<Long> ruleIds = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            ruleIds.add(id);
+        }
+        List<Long> attempted = new ArrayList<>();
+
+        List<Long> failed = Agora.deleteRulesById(ruleIds, ruleId -> {
+            attempted.add(ruleId);
+            if (ruleId == 3l) {
+                return CompletableFuture.failedFuture(new IOException("connection reset"));
+            }
+            if (ruleId == 12l) {
+                throw new IllegalStateException("invalid request");
+            }
+            return CompletableFuture.completedFuture(null);
+        }).join();
+
+        assertEquals(ruleIds, attempted);
+        assertEquals(List.of(3l, 12l), failed);
+    }
 }
@@ -0,0 +1,91 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class KickingRuleBatchTest {
+
+    @Test
+    void testRun_boundsParallelism() {
+        KickingRuleBatch batch = new KickingRuleBatch("1");
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.addCreation(() -> {
+                CompletableFuture<Void> request = new CompletableFuture<>();
+                pending.add(request);
+                return request;
+            });
+        }
+
+        CompletableFuture<Void> done = batch.run(2, new LatencyHistogram());
+        assertEquals(2, pending.size());
+
+        pending.get(0).complete(null);
+        assertEquals(3, pending.size());
+        pending.get(1).complete(null);
+        pending.get(2).complete(null);
+        pending.get(3).complete(null);
+        assertEquals(5, pending.size());
+        assertFalse(done.isDone());
+
+        pending.get(4).complete(null);
+        assertTrue(done.isDone());
+    }
+
+    @Test
+    void testRun_deletionsBeforeCreations() {
+        KickingRuleBatch batch = new KickingRuleBatch("1");
+        List<String> order = new ArrayList<>();
+        CompletableFuture<Void> deletion = new CompletableFuture<>();
+        batch.addCreation(() -> {
+            order.add("create");
+            return CompletableFuture.completedFuture(null);
+        });
+        batch.addDeletion(() -> {
+            order.add("delete");
+            return deletion;
+        });
+
+        batch.run(4, new LatencyHistogram());
+        assertEquals(List.of("delete"), order);
+        deletion.complete(null);
+        assertEquals(List.of("delete", "create"), order);
+    }
+
+    @Test
+    void testRun_failedRequestDoesNotStopOthers() {
+        KickingRuleBatch batch = new KickingRuleBatch("1");
+        AtomicInteger completed = new AtomicInteger();
+        batch.addCreation(() -> CompletableFuture.failedFuture(new IllegalStateException("rejected")));
+        batch.addCreation(() -> {
+            throw new IllegalStateException("not sent");
+        });
+        batch.addCreation(() -> {
+            completed.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+        LatencyHistogram latency = new LatencyHistogram();
+
+        CompletableFuture<Void> done = batch.run(1, latency);
+
+        assertTrue(done.isDone());
+        assertFalse(done.isCompletedExceptionally());
+        assertEquals(1, completed.get());
+        assertEquals(1, latency.getCount());
+    }
+
+    @Test
+    void testDispatch_emptyBatch() {
+        KickingRuleBatch batch = Agora.newBatch("1");
+        assertTrue(batch.isEmpty());
+        assertTrue(batch.dispatch().isDone());
+    }
+}
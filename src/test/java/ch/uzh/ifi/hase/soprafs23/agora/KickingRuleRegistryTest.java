@@ -0,0 +1,84 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.constant.Reason;
+
+public class KickingRuleRegistryTest {
+
+    @Test
+    void testRemoveRules_onlyMatchingReasonAndChannel() {
+        KickingRuleRegistry registry = new KickingRuleRegistry();
+        registry.register("1", Reason.KICK_VILLAGER, 10l);
+        registry.register("1", Reason.KICK_VILLAGER, 11l);
+        registry.register("1", Reason.MUTE_DEAD, 12l);
+        registry.register("2", Reason.KICK_VILLAGER, 20l);
+
+        assertThat(registry.removeRules("1", Reason.KICK_VILLAGER), containsInAnyOrder(10l, 11l));
+        assertTrue(registry.removeRules("1", Reason.KICK_VILLAGER).isEmpty());
+        assertTrue(registry.contains("1", 12l));
+        assertTrue(registry.contains("2", 20l));
+        assertFalse(registry.contains("1", 10l));
+    }
+
+    @Test
+    void testDeleteRules_failedDeletionsRegisteredAgain() {
+        KickingRuleRegistry registry = new KickingRuleRegistry();
+        registry.register("1", Reason.KICK_VILLAGER, 10l);
+        registry.register("1", Reason.KICK_VILLAGER, 11l);
+        registry.register("1", Reason.MUTE_DEAD, 12l);
+        List<Long> deleted = new ArrayList<>();
+
+        List<Long> failed = registry.deleteRules("1", Reason.KICK_VILLAGER, ruleIds -> {
+            deleted.addAll(ruleIds);
+            return CompletableFuture.completedFuture(List.of(11l));
+        }).join();
+
+        assertThat(deleted, containsInAnyOrder(10l, 11l));
+        assertEquals(List.of(11l), failed);
+        assertFalse(registry.contains("1", 10l));
+        assertTrue(registry.contains("1", 11l));
+        assertTrue(registry.contains("1", 12l));
+        // the next deletion retries the rule
+        assertEquals(List.of(11l), registry.removeRules("1", Reason.KICK_VILLAGER));
+    }
+
+    @Test
+    void testDeleteRules_nothingRegistered() {
+        KickingRuleRegistry registry = new KickingRuleRegistry();
+        List<Long> failed = registry.deleteRules("1", Reason.MUTE_DEAD, ruleIds -> {
+            throw new IllegalStateException("nothing to delete");
+        }).join();
+        assertEquals(List.of(), failed);
+    }
+
+    @Test
+    void testContains_unknownChannel() {
+        KickingRuleRegistry registry = new KickingRuleRegistry();
+        assertFalse(registry.contains("1", 10l));
+    }
+
+    @Test
+    void testIsCreating_untilEveryCreationEnded() {
+        KickingRuleRegistry registry = new KickingRuleRegistry();
+        registry.beginCreation("1");
+        registry.beginCreation("1");
+        assertTrue(registry.isCreating("1"));
+        assertFalse(registry.isCreating("2"));
+
+        registry.endCreation("1");
+        assertTrue(registry.isCreating("1"));
+        registry.endCreation("1");
+        assertFalse(registry.isCreating("1"));
+    }
+}
@@ -0,0 +1,64 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void testRecord_bucketsByPowerOfTwoMillis() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(500));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+
+        long[] counts = histogram.getBucketCounts();
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(1, counts[2]);
+        assertEquals(1, counts[7]);
+        assertEquals(4, histogram.getCount());
+        assertEquals(100, histogram.getMaxMillis(), 1e-9);
+    }
+
+    @Test
+    void testGetQuantileUpperBoundMillis() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getQuantileUpperBoundMillis(0.5));
+        for (int i = 0; i < 9; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        histogram.record(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(8, histogram.getQuantileUpperBoundMillis(0.5));
+        assertEquals(8, histogram.getQuantileUpperBoundMillis(0.9));
+        assertEquals(1024, histogram.getQuantileUpperBoundMillis(1));
+    }
+
+    @Test
+    void testRecord_hugeLatencyInLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.HOURS.toNanos(2));
+        long[] counts = histogram.getBucketCounts();
+        assertEquals(1, counts[counts.length - 1]);
+        assertEquals(Double.POSITIVE_INFINITY, histogram.getQuantileUpperBoundMillis(1));
+    }
+
+    @Test
+    void testRecord_notifiesListeners() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Long> recorded = new ArrayList<>();
+        histogram.addListener(recorded::add);
+
+        histogram.record(5);
+        histogram.record(7);
+
+        assertEquals(List.of(5l, 7l), recorded);
+    }
+}
@@ -0,0 +1,94 @@
+package ch.uzh.ifi.hase.soprafs23.agora;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+public class UtilsTest {
+    private static byte[] hmacWithFreshMac(String key, byte[] message) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key.getBytes(), "HmacSHA256"));
+        return mac.doFinal(message);
+    }
+
+    @Test
+    void testHmacSign_reusedMacMatchesFreshMac() throws Exception {
+        byte[] first = "first message".getBytes();
+        byte[] second = "second message".getBytes();
+
+        assertArrayEquals(hmacWithFreshMac("key one", first), Utils.hmacSign("key one", first));
+        assertArrayEquals(hmacWithFreshMac("key one", second), Utils.hmacSign("key one", second));
+        assertArrayEquals(hmacWithFreshMac("key two", first), Utils.hmacSign("key two", first));
+        assertArrayEquals(hmacWithFreshMac("key one", first), Utils.hmacSign("key one", first));
+    }
+
+    @Test
+    void testHmacSign_otherThread() throws Exception {
+        byte[] message = "message".getBytes();
+        byte[] expected = hmacWithFreshMac("key", message);
+        Utils.hmacSign("key", message);
+
+        byte[] actual = CompletableFuture.supplyAsync(() -> {
+            try {
+                return Utils.hmacSign("key", message);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).join();
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void testHmacSign_concurrentCallers() throws Exception {
+        byte[] message = "message".getBytes();
+        byte[] expectedOne = hmacWithFreshMac("key one", message);
+        byte[] expectedTwo = hmacWithFreshMac("key two", message);
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            String key = i % 2 == 0 ? "key one" : "key two";
+            byte[] expected = i % 2 == 0 ? expectedOne : expectedTwo;
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    for (int j = 0; j < 100; j++) {
+                        if (!Arrays.equals(expected, Utils.hmacSign(key, message))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.join());
+        }
+    }
+
+    @Test
+    void testPack_reusedBufferRoundTrip() throws Exception {
+        AccessToken token = new AccessToken("2d64cdbec0324225b28f83ed19f75397", "8214500e1ebd4e10bcd411dd4df44395", "1", "42");
+        token.addPrivilege(AccessToken.Privileges.kJoinChannel, 1000);
+        String built = token.build();
+        AccessToken longer = new AccessToken("2d64cdbec0324225b28f83ed19f75397", "8214500e1ebd4e10bcd411dd4df44395", "a longer channel name", "4242");
+        longer.addPrivilege(AccessToken.Privileges.kPublishAudioStream, 2000);
+        longer.build();
+
+        AccessToken parsed = new AccessToken("", "", "", "");
+        assertTrue(parsed.fromString(built));
+        assertArrayEquals(token.signature, parsed.signature);
+        assertEquals(Utils.crc32("1"), parsed.crcChannelName);
+        assertEquals(Integer.valueOf(1000), parsed.message.messages.get(AccessToken.Privileges.kJoinChannel.intValue));
+    }
+}
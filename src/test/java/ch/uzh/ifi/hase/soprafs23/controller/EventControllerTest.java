@@ -0,0 +1,97 @@
+package ch.uzh.ifi.hase.soprafs23.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ch.uzh.ifi.hase.soprafs23.service.UserService.USERAUTH_HEADER;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.uzh.ifi.hase.soprafs23.entity.User;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.service.GameEventService;
+import ch.uzh.ifi.hase.soprafs23.service.LobbyService;
+import ch.uzh.ifi.hase.soprafs23.service.UserService;
+
+@WebMvcTest(EventController.class)
+public class EventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LobbyService lobbyService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private GameEventService gameEventService;
+
+    private User user = mock(User.class);
+    private Lobby lobby = mock(Lobby.class);
+    private Player player = mock(Player.class);
+
+    @Test
+    void testSubscribe() throws Exception {
+        Mockito.when(userService.getUserByToken("token")).thenReturn(user);
+        Mockito.when(lobbyService.getLobbyById(1l)).thenReturn(lobby);
+        Mockito.when(lobbyService.getPlayerOfUser(user, lobby)).thenReturn(player);
+        Mockito.when(gameEventService.subscribe(lobby, player)).thenReturn(new SseEmitter());
+
+        MockHttpServletRequestBuilder getRequest = get("/lobbies/1/events")
+            .header(USERAUTH_HEADER, "token");
+
+        mockMvc.perform(getRequest)
+            .andExpect(status().isOk());
+
+        verify(lobbyService).validateUserIsInLobby(user, lobby);
+        verify(gameEventService).subscribe(lobby, player);
+    }
+
+    @Test
+    void testSubscribe_tokenAsQueryParameter() throws Exception {
+        Mockito.when(userService.getUserByToken("token")).thenReturn(user);
+        Mockito.when(lobbyService.getLobbyById(1l)).thenReturn(lobby);
+        Mockito.when(lobbyService.getPlayerOfUser(user, lobby)).thenReturn(player);
+        Mockito.when(gameEventService.subscribe(lobby, player)).thenReturn(new SseEmitter());
+
+        MockHttpServletRequestBuilder getRequest = get("/lobbies/1/events")
+            .param(USERAUTH_HEADER, "token");
+
+        mockMvc.perform(getRequest)
+            .andExpect(status().isOk());
+
+        verify(gameEventService).subscribe(lobby, player);
+    }
+
+    @Test
+    void testSubscribe_noToken() throws Exception {
+        mockMvc.perform(get("/lobbies/1/events"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testSubscribe_notInLobby() throws Exception {
+        Mockito.when(userService.getUserByToken("token")).thenReturn(user);
+        Mockito.when(lobbyService.getLobbyById(1l)).thenReturn(lobby);
+        Mockito.doThrow(new ResponseStatusException(HttpStatus.FORBIDDEN)).when(lobbyService).validateUserIsInLobby(user, lobby);
+
+        MockHttpServletRequestBuilder getRequest = get("/lobbies/1/events")
+            .header(USERAUTH_HEADER, "token");
+
+        mockMvc.perform(getRequest)
+            .andExpect(status().isForbidden());
+    }
+}
@@ -1,30 +1,42 @@
 package ch.uzh.ifi.hase.soprafs23.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ch.uzh.ifi.hase.soprafs23.service.UserService.USERAUTH_HEADER;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import ch.uzh.ifi.hase.soprafs23.constant.VoteAction;
 import ch.uzh.ifi.hase.soprafs23.entity.User;
 import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
-import ch.uzh.ifi.hase.soprafs23.rest.dto.PollGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.GameGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.VoteChangeDTO;
+import ch.uzh.ifi.hase.soprafs23.service.GameEventService;
 import ch.uzh.ifi.hase.soprafs23.service.GameService;
 import ch.uzh.ifi.hase.soprafs23.service.LobbyService;
 import ch.uzh.ifi.hase.soprafs23.service.UserService;
@@ -44,6 +56,9 @@ public class GameControllerTest {
     @MockBean
     private GameService gameService;
 
+    @MockBean
+    private GameEventService gameEventService;
+
     private User user = mock(User.class);
     private Lobby lobby = mock(Lobby.class);
     private Game game = mock(Game.class);
@@ -63,6 +78,7 @@ public class GameControllerTest {
         verify(lobbyService).validateUserIsAdmin(user, lobby);
         verify(lobbyService).validateLobbySize(lobby);
         verify(lobbyService).assignRoles(lobby);
+        verify(gameEventService).watchGame(game);
     }
 
     @Test
@@ -79,7 +95,58 @@ public class GameControllerTest {
 
         verify(gameService).validateGameStarted(game);
         verify(lobbyService).validateUserIsInLobby(user, lobby);
-        verify(gameService).toGameGetDTO(game);
+        verify(gameService).toGameGetDTO(game, 0);
+    }
+
+    @Test
+    void testGetGame_notModified() throws Exception {
+        Player player = mock(Player.class);
+        Mockito.when(userService.getUserByToken("token")).thenReturn(user);
+        Mockito.when(lobbyService.getLobbyById(1l)).thenReturn(lobby);
+        Mockito.when(lobbyService.getPlayerOfUser(user, lobby)).thenReturn(player);
+        Mockito.when(gameService.getGame(lobby)).thenReturn(game);
+        Mockito.when(gameService.getGameETag(game, player)).thenReturn("g1-2-0");
+
+        mockMvc.perform(get("/games/1").header(USERAUTH_HEADER, "token"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"g1-2-0\""));
+
+        mockMvc.perform(get("/games/1").header(USERAUTH_HEADER, "token").header("If-None-Match", "\"g1-2-0\""))
+            .andExpect(status().isNotModified());
+
+        verify(gameService, times(1)).toGameGetDTO(game, 0);
+    }
+
+    @Test
+    void testGetGame_since() throws Exception {
+        Player player = mock(Player.class);
+        GameGetDTO gameGetDTO = new GameGetDTO();
+        Mockito.when(userService.getUserByToken("token")).thenReturn(user);
+        Mockito.when(lobbyService.getLobbyById(1l)).thenReturn(lobby);
+        Mockito.when(lobbyService.getPlayerOfUser(user, lobby)).thenReturn(player);
+        Mockito.when(gameService.getGame(lobby)).thenReturn(game);
+        Mockito.when(gameService.toGameGetDTO(game, 42)).thenReturn(gameGetDTO);
+
+        mockMvc.perform(get("/games/1?since=42").header(USERAUTH_HEADER, "token"))
+            .andExpect(status().isOk());
+
+        verify(gameService).mergePlayerPollCommandsToGameGetDTO(gameGetDTO, player, 42);
+    }
+
+    @Test
+    void testGetPoll_notModified() throws Exception {
+        Poll poll = mock(Poll.class);
+        Mockito.when(userService.getUserByToken("token")).thenReturn(user);
+        Mockito.when(lobbyService.getLobbyById(1l)).thenReturn(lobby);
+        Mockito.when(gameService.getGame(lobby)).thenReturn(game);
+        Mockito.when(gameService.getCurrentPoll(game)).thenReturn(poll);
+        Mockito.when(gameService.isPollParticipant(poll, user)).thenReturn(true);
+        Mockito.when(gameService.getPollETag(game, poll, true)).thenReturn("p3-2");
+
+        mockMvc.perform(get("/games/1/polls").header(USERAUTH_HEADER, "token").header("If-None-Match", "\"p3-2\""))
+            .andExpect(status().isNotModified());
+
+        verify(gameService, never()).toPollGetDTO(game, poll, true);
     }
 
     @Test
@@ -99,8 +166,7 @@ public class GameControllerTest {
             .andExpect(status().isOk());
 
         verify(gameService).validateGameStarted(game);
-        verify(gameService).toPollGetDTO(poll);
-        verify(gameService, never()).censorPollGetDTO(Mockito.any(PollGetDTO.class));
+        verify(gameService).toPollGetDTO(game, poll, true);
     }
 
     @Test
@@ -120,8 +186,7 @@ public class GameControllerTest {
             .andExpect(status().isOk());
 
         verify(gameService).validateGameStarted(game);
-        verify(gameService).toPollGetDTO(poll);
-        verify(gameService).censorPollGetDTO(Mockito.any());
+        verify(gameService).toPollGetDTO(game, poll, false);
     }
 
     @Test
@@ -147,7 +212,7 @@ public class GameControllerTest {
 
         verify(gameService).validateGameStarted(game);
         verify(gameService).validateParticipant(poll, user);
-        verify(gameService).castVote(poll, participant, option);
+        verify(gameService).castVote(game, poll, participant, option);
     }
 
     @Test
@@ -173,7 +238,7 @@ public class GameControllerTest {
 
         verify(gameService).validateGameStarted(game);
         verify(gameService).validateParticipant(poll, user);
-        verify(gameService).removeVote(poll, participant, option);
+        verify(gameService).removeVote(game, poll, participant, option);
     }
 
     @Test
@@ -194,4 +259,32 @@ public class GameControllerTest {
         verify(lobbyService).validateUserIsInLobby(user, lobby);
         verify(gameService).getFractionGetDTO(game);
     }
+
+    @Test
+    void testChangeVotes() throws Exception {
+        Mockito.when(userService.getUserByToken("token")).thenReturn(user);
+        Mockito.when(lobbyService.getLobbyById(1l)).thenReturn(lobby);
+        Mockito.when(gameService.getGame(lobby)).thenReturn(game);
+
+        Poll poll = mock(Poll.class);
+        PollParticipant participant = mock(PollParticipant.class);
+
+        Mockito.when(gameService.getCurrentPoll(game)).thenReturn(poll);
+        Mockito.when(gameService.getParticipant(poll, user)).thenReturn(participant);
+
+        MockHttpServletRequestBuilder patchRequest = patch("/games/1/votes")
+            .header(USERAUTH_HEADER, "token")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"action\":\"REMOVE\",\"optionId\":1},{\"action\":\"ADD\",\"optionId\":2}]");
+
+        mockMvc.perform(patchRequest)
+            .andExpect(status().isNoContent());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<VoteChangeDTO>> voteChanges = ArgumentCaptor.forClass(List.class);
+        verify(gameService).validateParticipant(poll, user);
+        verify(gameService).changeVotes(Mockito.eq(game), Mockito.eq(poll), Mockito.eq(participant), voteChanges.capture());
+        assertEquals(VoteAction.REMOVE, voteChanges.getValue().get(0).getAction());
+        assertEquals(2l, voteChanges.getValue().get(1).getOptionId());
+    }
 }
@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static ch.uzh.ifi.hase.soprafs23.service.UserService.USERAUTH_HEADER;
@@ -31,6 +32,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import ch.uzh.ifi.hase.soprafs23.entity.User;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.rest.logicmapper.LogicDTOMapper;
 import ch.uzh.ifi.hase.soprafs23.rest.logicmapper.LogicEntityMapper;
 import ch.uzh.ifi.hase.soprafs23.service.LobbyService;
 import ch.uzh.ifi.hase.soprafs23.service.UserService;
@@ -137,6 +139,7 @@ public class LobbyControllerTest {
         Mockito.when(userService.getUserByToken("token")).thenReturn(usr);
         Mockito.when(lobbyService.getLobbyById(1l)).thenReturn(lobby);
         doNothing().when(lobbyService).validateUserIsInLobby(usr, lobby);
+        Mockito.when(lobbyService.toLobbyGetDTO(lobby)).thenReturn(LogicDTOMapper.convertLobbyToLobbyGetDTO(lobby));
 
         MockHttpServletRequestBuilder getRequest = get("/lobbies/1")
             .header(USERAUTH_HEADER, "token");
@@ -148,6 +151,23 @@ public class LobbyControllerTest {
             .andExpect(jsonPath(String.format("$.players[?(@.id == %d)]", usr.getId())).exists());
     }
 
+    @Test
+    void testGetLobbyInformation_notModified() throws Exception {
+        User usr = createTestUser("user", 2l);
+        Lobby lobby = new Lobby(1L, LogicEntityMapper.createPlayerFromUser(usr));
+
+        Mockito.when(userService.getUserByToken("token")).thenReturn(usr);
+        Mockito.when(lobbyService.getLobbyById(1l)).thenReturn(lobby);
+        Mockito.when(lobbyService.getLobbyETag(lobby)).thenReturn("l7");
+
+        mockMvc.perform(get("/lobbies/1").header(USERAUTH_HEADER, "token"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"l7\""));
+
+        mockMvc.perform(get("/lobbies/1").header(USERAUTH_HEADER, "token").header("If-None-Match", "\"l7\""))
+            .andExpect(status().isNotModified());
+    }
+
     @Test
     void testGetAllRoles() throws Exception {
         User user = createTestUser("test", 1L);
@@ -5,10 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,32 +14,8 @@ import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
 import ch.uzh.ifi.hase.soprafs23.logic.role.FractionRole;
-import ch.uzh.ifi.hase.soprafs23.logic.role.Role;
-import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Mayor;
-import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
-import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Werewolf;
-import ch.uzh.ifi.hase.soprafs23.logic.role.stagevoter.DayVoter;
 
 class GameIntegrationTest {
-    private class MockPollFunction {
-        private boolean called = false;
-        private List<Role> callers = new ArrayList<>();
-
-        public Supplier<Optional<Poll>> mockFunction(Role r) {
-            callers.add(r);
-            called = true;
-            return ((DayVoter)r)::createDayPoll;
-        }
-
-        public boolean isCalled() {
-            return called;
-        }
-
-        public List<Role> getCallers() {
-            return callers;
-        }
-    }
-
     private class MockGameObserver implements GameObserver {
         private final Game expectedGame;
         private boolean onNewStageCalled = false;
@@ -57,6 +30,16 @@ class GameIntegrationTest {
             assertEquals(expectedGame, game);
         }
 
+        @Override
+        public void onPollUpdated(Game game) {
+            assertEquals(expectedGame, game);
+        }
+
+        @Override
+        public void onPollFinished(Game game, Poll poll) {
+            assertEquals(expectedGame, game);
+        }
+
         @Override
         public void onNewStage(Game game) {
             assertEquals(expectedGame, game);
@@ -82,6 +65,9 @@ class GameIntegrationTest {
     @BeforeEach
     public void setUp() {
         lobby = mock(Lobby.class);
+        when(lobby.getFirstDayVoterPlan()).thenReturn(VoterPlan.empty());
+        when(lobby.getDayVoterPlan()).thenReturn(VoterPlan.empty());
+        when(lobby.getNightVoterPlan()).thenReturn(VoterPlan.empty());
         game = new Game(lobby);
         mockGameObserver = new MockGameObserver(game);
         game.addObserver(mockGameObserver);
@@ -101,6 +87,16 @@ class GameIntegrationTest {
         assertEquals(fraction, game.getWinner());
     }
 
+    @Test
+    void testStartGame_bumpsVersion() {
+        FractionRole fraction = mock(FractionRole.class);
+        when(lobby.getFractions()).thenReturn(List.of(fraction));
+        when(fraction.hasWon()).thenReturn(true);
+        long before = game.getVersion();
+        game.startGame();
+        assertTrue(game.getVersion() > before);
+    }
+
     @Test
     void testGameTwoStage() {
         FractionRole fraction = mock(FractionRole.class);
@@ -114,17 +110,4 @@ class GameIntegrationTest {
         assertTrue(game.isFinished());
         assertEquals(fraction, game.getWinner());
     }
-
-    @Test
-    void testGetVotersOfType() {
-        Role r1 = new Villager(0,null, null, null);
-        Role r2 = new Werewolf(0, null);
-        Role r3 = new Mayor(0, null, null, null);
-
-        MockPollFunction mockPollFunction = new MockPollFunction();
-
-        Game.getVotersOfType(List.of(r1, r2, r3), DayVoter.class, mockPollFunction::mockFunction);
-        assertTrue(mockPollFunction.isCalled());
-        assertEquals(List.of(r3, r1), mockPollFunction.getCallers());
-    }
 }
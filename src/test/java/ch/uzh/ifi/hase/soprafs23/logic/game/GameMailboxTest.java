@@ -0,0 +1,92 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class GameMailboxTest {
+    private int counter = 0;
+
+    @Test
+    void testExecute_runsInOrder() {
+        GameMailbox mailbox = new GameMailbox(Runnable::run);
+        List<Integer> order = new ArrayList<>();
+        mailbox.execute(() -> {
+            order.add(1);
+            mailbox.execute(() -> order.add(3));
+            order.add(2);
+        });
+        assertEquals(List.of(1, 2, 3), order);
+    }
+
+    @Test
+    void testExecute_serialUnderConcurrency() throws Exception {
+        GameMailbox mailbox = new GameMailbox();
+        ExecutorService submitters = Executors.newFixedThreadPool(16);
+        int submissions = 10000;
+        CountDownLatch done = new CountDownLatch(submissions);
+        for (int i = 0; i < submissions; i++) {
+            submitters.execute(() -> mailbox.execute(() -> {
+                counter++;
+                done.countDown();
+            }));
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(submissions, mailbox.call(() -> counter));
+        submitters.shutdown();
+    }
+
+    @Test
+    void testCall_returnsResult() {
+        GameMailbox mailbox = new GameMailbox();
+        assertEquals(42, mailbox.call(() -> 42));
+    }
+
+    @Test
+    void testCall_rethrowsException() {
+        GameMailbox mailbox = new GameMailbox();
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> mailbox.run(() -> { throw new IllegalArgumentException("test"); }));
+        assertEquals("test", exception.getMessage());
+    }
+
+    @Test
+    void testCall_reentrant() {
+        GameMailbox mailbox = new GameMailbox();
+        assertEquals(2, mailbox.call(() -> mailbox.call(() -> 1) + 1));
+    }
+
+    @Test
+    void testCurrent() {
+        GameMailbox mailbox = new GameMailbox();
+        assertNull(GameMailbox.current());
+        assertSame(mailbox, mailbox.call(GameMailbox::current));
+    }
+
+    @Test
+    void testFailingCommand_doesNotStopMailbox() {
+        GameMailbox mailbox = new GameMailbox();
+        mailbox.execute(() -> { throw new IllegalStateException("test"); });
+        assertEquals(1, mailbox.call(() -> 1));
+    }
+
+    @Test
+    void testScheduler_deliversToSchedulingMailbox() throws Exception {
+        GameMailbox mailbox = new GameMailbox();
+        CompletableFuture<GameMailbox> firedIn = new CompletableFuture<>();
+        mailbox.run(() -> Scheduler.getInstance().schedule(() -> firedIn.complete(GameMailbox.current()), 0));
+        assertSame(mailbox, firedIn.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,120 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SchedulerTest {
+    private final Scheduler scheduler = new Scheduler(4, 10, TimeUnit.MILLISECONDS);
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testSchedule_fires() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        ScheduledTask task = scheduler.schedule(fired::countDown, 20, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(task.isDone());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    void testCancel() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        ScheduledTask task = scheduler.schedule(fired::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        assertEquals(1, scheduler.getQueueDepth());
+        assertTrue(task.cancel());
+        assertEquals(0, scheduler.getQueueDepth());
+        Thread.sleep(150);
+        assertEquals(0, fired.get());
+        assertTrue(task.isCancelled());
+        assertFalse(task.isDone());
+        assertFalse(task.cancel());
+    }
+
+    @Test
+    void testReschedule_earlier() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        ScheduledTask task = scheduler.schedule(fired::countDown, 1, TimeUnit.HOURS);
+        task.reschedule(0, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    void testReschedule_later() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        ScheduledTask task = scheduler.schedule(fired::incrementAndGet, 30, TimeUnit.MILLISECONDS);
+        task.reschedule(1, TimeUnit.HOURS);
+        Thread.sleep(150);
+        assertEquals(0, fired.get());
+        assertEquals(1, scheduler.getQueueDepth());
+        task.cancel();
+    }
+
+    @Test
+    void testReschedule_afterFiring() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        CountDownLatch firedTwice = new CountDownLatch(2);
+        ScheduledTask task = scheduler.schedule(() -> {
+            fired.incrementAndGet();
+            firedTwice.countDown();
+        }, 0, TimeUnit.MILLISECONDS);
+        while (!task.isDone()) {
+            Thread.sleep(5);
+        }
+        task.reschedule(0, TimeUnit.MILLISECONDS);
+        assertTrue(firedTwice.await(2, TimeUnit.SECONDS));
+        assertEquals(2, fired.get());
+    }
+
+    @Test
+    void testFailingTask_doesNotStopShard() throws InterruptedException {
+        Scheduler singleShard = new Scheduler(1, 10, TimeUnit.MILLISECONDS);
+        CountDownLatch fired = new CountDownLatch(1);
+        singleShard.schedule(() -> { throw new IllegalStateException("test"); }, 0, TimeUnit.MILLISECONDS);
+        singleShard.schedule(fired::countDown, 20, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        singleShard.shutdown();
+    }
+
+    @Test
+    void testManyTimers() throws InterruptedException {
+        int timers = 50000;
+        CountDownLatch fired = new CountDownLatch(timers);
+        for (int i = 0; i < timers; i++) {
+            ScheduledTask task = scheduler.schedule(fired::countDown, i % 200, TimeUnit.MILLISECONDS);
+            if (i % 10 == 0) {
+                task.cancel();
+                fired.countDown();
+            }
+        }
+        assertTrue(fired.await(10, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getQueueDepth());
+        assertTrue(scheduler.getMaxLagMillis() >= 0);
+    }
+
+    @Test
+    void testCallbackExecutor() throws Exception {
+        ExecutorService callbacks = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "test-callback"));
+        Scheduler withCallbacks = new Scheduler(1, 10, TimeUnit.MILLISECONDS, callbacks);
+        CompletableFuture<String> firedOn = new CompletableFuture<>();
+        withCallbacks.schedule(() -> firedOn.complete(Thread.currentThread().getName()), 0, TimeUnit.MILLISECONDS);
+        assertEquals("test-callback", firedOn.get(2, TimeUnit.SECONDS));
+        withCallbacks.shutdown();
+        callbacks.shutdown();
+    }
+}
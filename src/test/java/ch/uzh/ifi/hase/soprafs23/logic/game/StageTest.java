@@ -47,6 +47,16 @@ public class StageTest {
             onNewPollCalled = true;
         }
 
+        @Override
+        public void onPollUpdated(Poll poll) {
+            assertEquals(expectedPoll, poll);
+        }
+
+        @Override
+        public void onPollFinished(Poll poll) {
+            assertEquals(expectedPoll, poll);
+        }
+
         public boolean isOnStageFinishedCalled() {
             return onStageFinishedCalled;
         }
@@ -92,4 +102,34 @@ public class StageTest {
         verify(expectedCommand).execute();
         assertEquals(List.of(expectedCommand), stage.getPollCommands());
     }
+
+    @Test
+    void testOnPollUpdated_forwardsCurrentPoll() {
+        Poll expected = mock(Poll.class);
+        Queue<Supplier<Optional<Poll>>> pollSupplierQueue = new LinkedList<>(List.of(() -> Optional.of(expected)));
+        Stage stage = new Stage(StageType.Day, pollSupplierQueue);
+        StageObserver observer = mock(StageObserver.class);
+        stage.addObserver(observer);
+        stage.startStage();
+        stage.onPollUpdated();
+
+        verify(observer).onPollUpdated(expected);
+    }
+
+    @Test
+    void testStartStage_sharedVoterPlan() {
+        Poll expected = mock(Poll.class);
+        PollCommand expectedCommand = mock(PollCommand.class);
+        when(expected.getResultCommand()).thenReturn(expectedCommand);
+        VoterPlan voterPlan = new VoterPlan(List.of(Optional::empty, () -> Optional.of(expected)));
+
+        for (int i = 0; i < 2; i++) {
+            Stage stage = new Stage(StageType.Night, voterPlan);
+            StageObserverMock observer = new StageObserverMock(stage, expected, List.of(expectedCommand));
+            stage.addObserver(observer);
+            stage.startStage();
+            assertTrue(observer.isOnNewPollCalled());
+            assertTrue(observer.isOnStageFinishedCalled());
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class StateVersionTest {
+    @Test
+    void testBump_increasesVersion() {
+        StateVersion version = new StateVersion();
+        long before = version.get();
+        version.bump();
+        assertTrue(version.get() > before);
+    }
+
+    @Test
+    void testVersionsAreUniqueAcrossInstances() {
+        StateVersion first = new StateVersion();
+        StateVersion second = new StateVersion();
+        assertNotEquals(first.get(), second.get());
+        first.bump();
+        assertNotEquals(first.get(), second.get());
+    }
+}
@@ -0,0 +1,70 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class VirtualSchedulerTest {
+    private final VirtualScheduler scheduler = new VirtualScheduler();
+
+    @Test
+    void testRunNext_ordersByDeadline() {
+        List<String> fired = new ArrayList<>();
+        scheduler.schedule(() -> fired.add("late"), 30);
+        scheduler.schedule(() -> fired.add("early"), 10);
+        scheduler.schedule(() -> fired.add("early too"), 10);
+
+        assertTrue(scheduler.runNext());
+        assertEquals(10_000, scheduler.nowMillis());
+        assertTrue(scheduler.runNext());
+        assertTrue(scheduler.runNext());
+        assertEquals(30_000, scheduler.nowMillis());
+        assertFalse(scheduler.runNext());
+        assertEquals(List.of("early", "early too", "late"), fired);
+    }
+
+    @Test
+    void testCancel() {
+        List<String> fired = new ArrayList<>();
+        ScheduledTask task = scheduler.schedule(() -> fired.add("cancelled"), 10);
+
+        assertTrue(task.cancel());
+        assertFalse(task.cancel());
+        assertFalse(scheduler.runNext());
+        assertTrue(task.isCancelled());
+        assertFalse(task.isDone());
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    void testReschedule_replacesDeadline() {
+        List<Long> firedAt = new ArrayList<>();
+        ScheduledTask task = scheduler.schedule(() -> firedAt.add(scheduler.nowMillis()), 60);
+        scheduler.schedule(() -> {}, 20);
+        task.reschedule(0, TimeUnit.SECONDS);
+
+        while (scheduler.runNext()) {
+            // drain
+        }
+        assertEquals(List.of(0L), firedAt);
+        assertTrue(task.isDone());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    void testReschedule_afterRun() {
+        List<Long> firedAt = new ArrayList<>();
+        ScheduledTask task = scheduler.schedule(() -> firedAt.add(scheduler.nowMillis()), 10);
+        scheduler.runNext();
+        task.reschedule(5, TimeUnit.SECONDS);
+        assertFalse(task.isDone());
+        scheduler.runNext();
+        assertEquals(List.of(10_000L, 15_000L), firedAt);
+    }
+}
@@ -0,0 +1,65 @@
+package ch.uzh.ifi.hase.soprafs23.logic.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.logic.role.Role;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Mayor;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Werewolf;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Witch;
+
+public class VoterPlanTest {
+    private final List<Player> alivePlayers = List.of(new Player(1l, "player"));
+
+    @Test
+    void testForDay_orderedByPriority() {
+        Role villager = new Villager(0, null, () -> alivePlayers, null);
+        Role werewolf = new Werewolf(0, () -> alivePlayers);
+        Role mayor = new Mayor(0, () -> alivePlayers, null, null);
+
+        VoterPlan plan = VoterPlan.forDay(List.of(villager, werewolf, mayor));
+
+        assertEquals(2, plan.size());
+        // the mayor only asks for a vote once the mayor died
+        assertTrue(plan.get(0).get().isEmpty());
+        assertEquals(Villager.class, plan.get(1).get().get().getRole());
+    }
+
+    @Test
+    void testForFirstDay() {
+        Role villager = new Villager(0, null, () -> alivePlayers, null);
+        Role werewolf = new Werewolf(0, () -> alivePlayers);
+
+        VoterPlan plan = VoterPlan.forFirstDay(List.of(werewolf, villager));
+
+        assertEquals(1, plan.size());
+        Optional<Poll> poll = plan.get(0).get();
+        assertEquals(Villager.class, poll.get().getRole());
+    }
+
+    @Test
+    void testForNight_includesSecondNightPoll() {
+        Role witch = new Witch(0, () -> alivePlayers, List::of, command -> {});
+        Role werewolf = new Werewolf(0, () -> alivePlayers);
+        Role villager = new Villager(0, null, () -> alivePlayers, null);
+
+        VoterPlan plan = VoterPlan.forNight(List.of(witch, villager, werewolf));
+
+        assertEquals(3, plan.size());
+        assertEquals(Werewolf.class, plan.get(0).get().get().getRole());
+    }
+
+    @Test
+    void testEmpty() {
+        assertEquals(0, VoterPlan.empty().size());
+        assertEquals(0, VoterPlan.forNight(List.of()).size());
+    }
+}
@@ -6,6 +6,7 @@ import static org.hamcrest.core.IsIterableContaining.hasItem;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
@@ -15,7 +16,9 @@ import java.util.List;
 
 import ch.uzh.ifi.hase.soprafs23.logic.role.FractionRole;
 import ch.uzh.ifi.hase.soprafs23.logic.role.Role;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Hunter;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Lover;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Mayor;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Werewolf;
 
@@ -42,6 +45,51 @@ public class LobbyTest {
         assertThat("List equality without order", actual, containsInAnyOrder(expected.toArray()));
     }
 
+    @Test
+    void testFindPlayerById() {
+        Player admin = new Player(12l, "admin");
+        Player p = new Player(13l, "player");
+        Lobby l = new Lobby(1l, admin);
+        l.addPlayer(p);
+        assertSame(p, l.findPlayerById(13l));
+
+        l.removePlayer(p);
+        assertNull(l.findPlayerById(13l));
+        assertSame(admin, l.findPlayerById(12l));
+    }
+
+    @Test
+    void testGetAlivePlayers_followsKillAndRevive() {
+        Player admin = new Player(12l, "admin");
+        Player p = new Player(13l, "player");
+        Lobby l = new Lobby(1l, admin);
+        l.addPlayer(p);
+
+        p.killPlayer();
+        assertEquals(List.of(admin), l.getAlivePlayers());
+        assertEquals(1, l.getAlivePlayerCount());
+
+        p.revivePlayer();
+        assertEquals(2, l.getAlivePlayerCount());
+        assertThrows(UnsupportedOperationException.class, () -> l.getAlivePlayers().remove(p));
+
+        l.removePlayer(p);
+        assertEquals(List.of(admin), l.getAlivePlayers());
+    }
+
+    @Test
+    void testGetAlivePlayers_afterReInstatiate() {
+        Player admin = new Player(12l, "admin");
+        Lobby l = new Lobby(1l, admin);
+        admin.killPlayer();
+        assertEquals(0, l.getAlivePlayerCount());
+
+        l.reInstatiatePlayers();
+        assertEquals(1, l.getAlivePlayerCount());
+        l.getPlayers().iterator().next().killPlayer();
+        assertEquals(0, l.getAlivePlayerCount());
+    }
+
     @Test
     void testRemovePlayer() {
         Player admin = new Player(12l, "admin");
@@ -92,6 +140,44 @@ public class LobbyTest {
         }
     }
 
+    @Test
+    void testGetRolesOfPlayer_followsRoleChanges() {
+        Player admin = new Player(12l, "admin");
+        Player p = new Player(13l, "player");
+        Lobby l = new Lobby(1l, admin);
+        l.addPlayer(p);
+        l.instantiateRoles(null, null, null, null, null, null);
+        Role villager = l.getRoles().stream().filter(Villager.class::isInstance).findFirst().get();
+        Role mayor = l.getRoles().stream().filter(Mayor.class::isInstance).findFirst().get();
+        Role hunter = l.getRoles().stream().filter(Hunter.class::isInstance).findFirst().get();
+
+        assertTrue(l.getRolesOfPlayer(p).isEmpty());
+        l.addPlayerToRole(p, Villager.class);
+        l.addPlayerToRole(p, Mayor.class);
+        l.addPlayerToRole(p, Hunter.class);
+        l.addPlayerToRole(p, Villager.class);
+        Collection<Role> rolesBefore = l.getRolesOfPlayer(p);
+        assertThat(rolesBefore, containsInAnyOrder(villager, mayor, hunter));
+
+        // there is only one mayor and one hunter, so these move to the admin
+        l.addPlayerToRole(admin, Mayor.class);
+        l.addPlayerToRole(admin, Hunter.class);
+        assertThat(l.getRolesOfPlayer(p), containsInAnyOrder(villager));
+        assertThat(l.getRolesOfPlayer(admin), containsInAnyOrder(mayor, hunter));
+        assertThat(rolesBefore, containsInAnyOrder(villager, mayor, hunter));
+        assertThrows(UnsupportedOperationException.class, () -> l.getRolesOfPlayer(admin).clear());
+    }
+
+    @Test
+    void testGetRolesOfPlayer_resetOnNewRoles() {
+        Player admin = new Player(12l, "admin");
+        Lobby l = new Lobby(1l, admin);
+        l.instantiateRoles(null, null, null, null, null, null);
+        l.addPlayerToRole(admin, Werewolf.class);
+        l.instantiateRoles(null, null, null, null, null, null);
+        assertTrue(l.getRolesOfPlayer(admin).isEmpty());
+    }
+
     @Test
     void testShufflePlayer(){
         Player admin = new Player(12l, "admin");
@@ -115,6 +201,7 @@ public class LobbyTest {
         l.addObserver(observer);
         l.dissolve();
         verify(observer).onLobbyDissolved(l);
+        assertFalse(l.isOpen());
     }
 
     @Test
@@ -142,6 +229,38 @@ public class LobbyTest {
         assertEquals(10, lobby.getPartyVoteDurationSeconds(), "Party vote duration seconds not set correctly");
     }
 
+    @Test
+    void testLobbyUpdatedNotifications() {
+        LobbyObserver observer = mock(LobbyObserver.class);
+        Player p = new Player(2l, "player");
+        Lobby l = new Lobby(1l, new Player(1l, "admin"));
+        l.addObserver(observer);
+        l.addPlayer(p);
+        l.removePlayer(p);
+        l.setOpen(false);
+        l.setPartyVoteDurationSeconds(30);
+        l.setSingleVoteDurationSeconds(30);
+        verify(observer, times(5)).onLobbyUpdated(l);
+    }
+
+    @Test
+    void testVersion() {
+        Player admin = new Player(1l, "admin");
+        Lobby l = new Lobby(1l, admin);
+        long created = l.getVersion();
+        l.addPlayer(new Player(2l, "player"));
+        long joined = l.getVersion();
+        admin.killPlayer();
+        long killed = l.getVersion();
+        l.reInstatiatePlayers();
+        long reInstantiated = l.getVersion();
+        l.getPlayerById(2l).killPlayer();
+        assertTrue(created < joined);
+        assertTrue(joined < killed);
+        assertTrue(killed < reInstantiated);
+        assertTrue(reInstantiated < l.getVersion());
+    }
+
     @Test
     void testIsObserver() {
         LobbyObserver observer = mock(LobbyObserver.class);
@@ -5,8 +5,17 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PrivateLoverNotificationPollCommand;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PrivatePollCommand;
+
 public class PlayerTest {
 
     @Test
@@ -63,6 +72,30 @@ public class PlayerTest {
         assertTrue(observer.isPlayerAlive());
     }
 
+    @Test
+    void testKillAndRevive_notifyObservers() {
+        Player player = new Player(12l, "Test");
+        PlayerObserver observer = mock(PlayerObserver.class);
+        player.addObserver(observer);
+        player.killPlayer();
+        player.killPlayer();
+        player.revivePlayer();
+        player.revivePlayer();
+        verify(observer, times(1)).onPlayerKilled(player);
+        verify(observer, times(1)).onPlayerRevived(player);
+    }
+
+    @Test
+    void testGetPrivatePollCommandsSince() {
+        Player player = new Player(12l, "Test");
+        PrivatePollCommand first = new PrivateLoverNotificationPollCommand(player, player);
+        PrivatePollCommand second = new PrivateLoverNotificationPollCommand(player, player);
+        player.addPrivatePollCommand(first);
+        player.addPrivatePollCommand(second);
+        assertEquals(List.of(first, second), player.getPrivatePollCommandsSince(0));
+        assertEquals(List.of(second), player.getPrivatePollCommandsSince(first.getSequence()));
+    }
+
     @Test
     void testEquality() {
         Player p1 = new Player(1l, "a");
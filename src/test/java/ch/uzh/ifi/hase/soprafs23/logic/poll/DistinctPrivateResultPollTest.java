@@ -1,5 +1,6 @@
 package ch.uzh.ifi.hase.soprafs23.logic.poll;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -26,7 +27,7 @@ public class DistinctPrivateResultPollTest {
         PollOption pollOption = mock(PollOption.class);
         PollParticipant pollParticipant = mock(PollParticipant.class);
 
-        when(pollOption.getSupporters()).thenReturn(List.of(pollParticipant));
+        when(pollOption.getVotes(pollParticipant)).thenReturn(1);
 
         assertThrows(IllegalArgumentException.class, () -> distinctPrivateResultPoll.castVote(pollParticipant, pollOption));
     }
@@ -67,4 +68,20 @@ public class DistinctPrivateResultPollTest {
         verify(p1).addPrivatePollCommand(pollCommand1);
         verify(p2).addPrivatePollCommand(pollCommand2);
     }
+
+    @Test
+    void testChangeVotes_selectsBothOptionsAtOnce() {
+        PollParticipant pollParticipant = new PollParticipant(mock(Player.class), 2);
+        PrivateResultPollOption pollOption1 = new PrivateResultPollOption(mock(Player.class), mock(PrivatePollCommand.class));
+        PrivateResultPollOption pollOption2 = new PrivateResultPollOption(mock(Player.class), mock(PrivatePollCommand.class));
+        DistinctPrivateResultPoll distinctPrivateResultPoll = new DistinctPrivateResultPoll(
+            null, "test", List.of(pollOption1, pollOption2), pollParticipant, 0, null);
+
+        assertThrows(IllegalArgumentException.class, () -> distinctPrivateResultPoll.changeVotes(pollParticipant, List.of(), List.of(pollOption1, pollOption1)));
+        distinctPrivateResultPoll.changeVotes(pollParticipant, List.of(), List.of(pollOption1, pollOption2));
+
+        assertEquals(1, pollOption1.getSupportersAmount());
+        assertEquals(1, pollOption2.getSupportersAmount());
+        assertThrows(IllegalArgumentException.class, () -> distinctPrivateResultPoll.changeVotes(pollParticipant, List.of(pollOption1), List.of(pollOption2)));
+    }
 }
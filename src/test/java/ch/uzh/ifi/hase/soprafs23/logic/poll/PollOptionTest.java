@@ -0,0 +1,68 @@
+package ch.uzh.ifi.hase.soprafs23.logic.poll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PollOptionTest {
+
+    @Test
+    void testAddSupporter_countsVotesPerSupporter() {
+        PollOption pollOption = new PollOption(null, null);
+        PollParticipant first = mock(PollParticipant.class);
+        PollParticipant second = mock(PollParticipant.class);
+
+        pollOption.addSupporter(first);
+        pollOption.addSupporter(second);
+        pollOption.addSupporter(first);
+
+        assertEquals(2, pollOption.getVotes(first));
+        assertEquals(1, pollOption.getVotes(second));
+        assertEquals(3, pollOption.getSupportersAmount());
+        assertEquals(List.of(first, first, second), pollOption.getSupporters());
+    }
+
+    @Test
+    void testRemoveSupporter_removesOneVote() {
+        PollOption pollOption = new PollOption(null, null);
+        PollParticipant supporter = mock(PollParticipant.class);
+        pollOption.addSupporter(supporter);
+        pollOption.addSupporter(supporter);
+
+        pollOption.removeSupporter(supporter);
+        assertEquals(1, pollOption.getVotes(supporter));
+        assertEquals(1, pollOption.getSupportersAmount());
+
+        pollOption.removeSupporter(supporter);
+        assertEquals(0, pollOption.getVotes(supporter));
+        assertEquals(0, pollOption.getSupportersAmount());
+        assertEquals(List.of(), pollOption.getSupporters());
+    }
+
+    @Test
+    void testRemoveSupporter_notSupporting() {
+        PollOption pollOption = new PollOption(null, null);
+        PollParticipant supporter = mock(PollParticipant.class);
+        pollOption.addSupporter(supporter);
+
+        pollOption.removeSupporter(mock(PollParticipant.class));
+
+        assertEquals(1, pollOption.getSupportersAmount());
+        assertEquals(List.of(supporter), pollOption.getSupporters());
+    }
+
+    @Test
+    void testClearSupporters() {
+        PollOption pollOption = new PollOption(null, null);
+        PollParticipant supporter = mock(PollParticipant.class);
+        pollOption.addSupporter(supporter);
+
+        pollOption.clearSupporters();
+
+        assertEquals(0, pollOption.getVotes(supporter));
+        assertEquals(0, pollOption.getSupportersAmount());
+    }
+}
@@ -1,18 +1,29 @@
 package ch.uzh.ifi.hase.soprafs23.logic.poll;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
+import ch.uzh.ifi.hase.soprafs23.logic.game.ScheduledTask;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.tiedpolldecider.TiedPollDecider;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
@@ -59,8 +70,9 @@ public class PollTest {
         Poll poll = setupBasicPlayerPoll();
         PollParticipant p1 = poll.getPollParticipants().iterator().next();
         PollOption o1 = poll.getPollOptions().iterator().next();
-        when(p1.getRemainingVotes()).thenReturn(0);
-        when(o1.getSupporters()).thenReturn(List.of(p1));
+        when(p1.getRemainingVotes()).thenReturn(1);
+        poll.castVote(p1, o1);
+        when(o1.getVotes(p1)).thenReturn(1);
         poll.removeVote(p1, o1);
         verify(p1).increaseRemainingVotes();
         verify(o1).removeSupporter(p1);
@@ -72,20 +84,27 @@ public class PollTest {
         PollParticipant p1 = poll.getPollParticipants().iterator().next();
         PollOption o1 = poll.getPollOptions().iterator().next();
         when(p1.getRemainingVotes()).thenReturn(0);
-        when(o1.getSupporters()).thenReturn(List.of());
+        when(o1.getVotes(p1)).thenReturn(0);
         assertThrows(IllegalArgumentException.class, ()-> poll.removeVote(p1, o1));
     }
 
+    private void castVotes(Poll poll, PollParticipant voter, PollOption option, int votes) {
+        for (int i = 0; i < votes; i++) {
+            poll.castVote(voter, option);
+        }
+    }
+
     @Test
     void testFinishPoll() {
         // Test that the poll finishes if there is only one option
-        Poll poll = setupBasicPlayerPoll();
-        PollOption o1 = poll.getPollOptions().iterator().next();
-        PollOption o2 = poll.getPollOptions().stream().skip(1).findFirst().get();
-        PollOption o3 = poll.getPollOptions().stream().skip(2).findFirst().get();
-        when(o1.getSupportersAmount()).thenReturn(1);
-        when(o2.getSupportersAmount()).thenReturn(3);
-        when(o3.getSupportersAmount()).thenReturn(2);
+        PollOption o1 = mock(PollOption.class);
+        PollOption o2 = mock(PollOption.class);
+        PollOption o3 = mock(PollOption.class);
+        PollParticipant voter = new PollParticipant(mock(Player.class), 6);
+        Poll poll = new Poll(Villager.class, "", List.of(o1, o2, o3), List.of(voter), 0, mock(TiedPollDecider.class));
+        castVotes(poll, voter, o1, 1);
+        castVotes(poll, voter, o2, 3);
+        castVotes(poll, voter, o3, 2);
         PollCommand expectedCommand = mock(PollCommand.class);
         PollCommand wrongCommand = mock(PollCommand.class);
         when(o1.getPollCommand()).thenReturn(wrongCommand);
@@ -103,16 +122,10 @@ public class PollTest {
             mock(PollOption.class),
             mock(PollOption.class)
         );
-        List<PollParticipant> mockParticipants = List.of(
-            mock(PollParticipant.class),
-            mock(PollParticipant.class)
-        );
+        PollParticipant voter = new PollParticipant(mock(Player.class), 5);
         PollOption o1 = mockOptions.get(0);
         PollOption o2 = mockOptions.get(1);
         PollOption o3 = mockOptions.get(2);
-        when(o1.getSupportersAmount()).thenReturn(1);
-        when(o2.getSupportersAmount()).thenReturn(2);
-        when(o3.getSupportersAmount()).thenReturn(2);
         PollCommand expectedCommand = mock(PollCommand.class);
         PollCommand wrongCommand = mock(PollCommand.class);
         when(o1.getPollCommand()).thenReturn(wrongCommand);
@@ -129,7 +142,10 @@ public class PollTest {
             }
             
         };
-        Poll poll = new Poll(Werewolf.class, "", mockOptions, mockParticipants, 0, mockTiedPollDecider);
+        Poll poll = new Poll(Werewolf.class, "", mockOptions, List.of(voter), 0, mockTiedPollDecider);
+        castVotes(poll, voter, o1, 1);
+        castVotes(poll, voter, o2, 2);
+        castVotes(poll, voter, o3, 2);
         poll.finish();
         assertEquals(expectedCommand, poll.getResultCommand());
     }
@@ -142,4 +158,213 @@ public class PollTest {
         poll.calculateScheduledFinish(calendar);
         verify(calendar).add(Calendar.SECOND, poll.getDurationSeconds());
     }
+
+    @Test
+    void testCastVote_finishedPoll() {
+        Poll poll = setupBasicPlayerPoll();
+        PollParticipant p1 = poll.getPollParticipants().iterator().next();
+        PollOption o1 = poll.getPollOptions().iterator().next();
+        when(p1.getRemainingVotes()).thenReturn(1);
+        when(o1.getPollCommand()).thenReturn(mock(PollCommand.class));
+        poll.castVote(p1, o1);
+        poll.finish();
+
+        assertThrows(IllegalArgumentException.class, ()-> poll.castVote(p1, o1));
+        assertThrows(IllegalArgumentException.class, ()-> poll.removeVote(p1, o1));
+    }
+
+    @Test
+    void testCastVote_notParticipant() {
+        Poll poll = setupBasicPlayerPoll();
+        PollParticipant outsider = mock(PollParticipant.class);
+        PollOption o1 = poll.getPollOptions().iterator().next();
+        when(outsider.getRemainingVotes()).thenReturn(1);
+
+        assertThrows(IllegalArgumentException.class, ()-> poll.castVote(outsider, o1));
+    }
+
+    @Test
+    void testCastVote_foreignOption() {
+        Poll poll = setupBasicPlayerPoll();
+        PollParticipant p1 = poll.getPollParticipants().iterator().next();
+        when(p1.getRemainingVotes()).thenReturn(1);
+
+        assertThrows(IllegalArgumentException.class, ()-> poll.castVote(p1, mock(PollOption.class)));
+    }
+
+    private final PollParticipant singleVoter = new PollParticipant(null);
+    private final PollParticipant doubleVoter = new PollParticipant(null, 2);
+    private final PollOption firstOption = new PollOption(null, mock(PollCommand.class));
+    private final PollOption secondOption = new PollOption(null, mock(PollCommand.class));
+
+    private Poll setupQuorumPoll() {
+        return new Poll(Villager.class, "", List.of(firstOption, secondOption), List.of(singleVoter, doubleVoter), 0, mock(TiedPollDecider.class));
+    }
+
+    @Test
+    void testGetRemainingVotes() {
+        Poll poll = setupQuorumPoll();
+        assertEquals(3, poll.getRemainingVotes());
+
+        poll.castVote(doubleVoter, firstOption);
+        assertEquals(2, poll.getRemainingVotes());
+
+        poll.removeVote(doubleVoter, firstOption);
+        assertEquals(3, poll.getRemainingVotes());
+    }
+
+    @Test
+    void testCastVote_quorumReschedulesFinish() {
+        Poll poll = setupQuorumPoll();
+        ScheduledTask finishTask = mock(ScheduledTask.class);
+        poll.setFinishTask(finishTask);
+        poll.setFinishOnQuorum(true);
+
+        poll.castVote(singleVoter, firstOption);
+        poll.castVote(doubleVoter, firstOption);
+        verify(finishTask, never()).reschedule(anyLong(), any());
+
+        poll.castVote(doubleVoter, secondOption);
+        verify(finishTask).reschedule(0, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testCastVote_quorumDisabled() {
+        Poll poll = setupQuorumPoll();
+        ScheduledTask finishTask = mock(ScheduledTask.class);
+        poll.setFinishTask(finishTask);
+
+        poll.castVote(singleVoter, firstOption);
+        poll.castVote(doubleVoter, firstOption);
+        poll.castVote(doubleVoter, secondOption);
+        assertEquals(0, poll.getRemainingVotes());
+        verify(finishTask, never()).reschedule(anyLong(), any());
+    }
+
+    @Test
+    void testSetPollParticipants_recountsRemainingVotes() {
+        Poll poll = setupQuorumPoll();
+        poll.setPollParticipants(List.of(new PollParticipant(null, 1)));
+        assertEquals(1, poll.getRemainingVotes());
+    }
+
+    @Test
+    void testVotesNotifyObservers() {
+        Poll poll = setupQuorumPoll();
+        PollObserver observer = mock(PollObserver.class);
+        poll.addObserver(observer);
+        poll.castVote(doubleVoter, firstOption);
+        poll.removeVote(doubleVoter, firstOption);
+        verify(observer, times(2)).onPollUpdated();
+    }
+
+    @Test
+    void testVersion() {
+        Poll poll = setupQuorumPoll();
+        long created = poll.getVersion();
+        poll.castVote(doubleVoter, firstOption);
+        long voted = poll.getVersion();
+        poll.setScheduledFinish(null);
+        long rescheduled = poll.getVersion();
+        poll.finish();
+        assertTrue(created < voted);
+        assertTrue(voted < rescheduled);
+        assertTrue(rescheduled < poll.getVersion());
+    }
+
+    @Test
+    void testFinishIfOpen() {
+        Poll poll = setupQuorumPoll();
+        PollObserver observer = mock(PollObserver.class);
+        poll.addObserver(observer);
+        poll.castVote(singleVoter, firstOption);
+
+        assertFalse(poll.isFinished());
+        poll.finishIfOpen();
+        assertTrue(poll.isFinished());
+        poll.finishIfOpen();
+        verify(observer).onPollFinished();
+    }
+
+    @Test
+    void testGetPollParticipant() {
+        Player voter = new Player(1l, "voter");
+        PollParticipant participant = new PollParticipant(voter);
+        Poll poll = new Poll(Villager.class, "", List.of(firstOption), List.of(participant), 0, mock(TiedPollDecider.class));
+
+        assertSame(participant, poll.getPollParticipant(1l));
+        assertNull(poll.getPollParticipant(2l));
+    }
+
+    @Test
+    void testGetPollOption() {
+        PollOption option = new PollOption(new Player(1l, "target"), mock(PollCommand.class));
+        Poll poll = new Poll(Villager.class, "", List.of(option), List.of(singleVoter), 0, mock(TiedPollDecider.class));
+
+        assertSame(option, poll.getPollOption(1l));
+        assertNull(poll.getPollOption(2l));
+    }
+
+    @Test
+    void testLookups_followReplacedOptionsAndParticipants() {
+        PollParticipant oldParticipant = new PollParticipant(new Player(1l, "old"));
+        PollOption oldOption = new PollOption(new Player(2l, "old"), mock(PollCommand.class));
+        Poll poll = new Poll(Villager.class, "", List.of(oldOption), List.of(oldParticipant), 0, mock(TiedPollDecider.class));
+        assertSame(oldParticipant, poll.getPollParticipant(1l));
+        assertSame(oldOption, poll.getPollOption(2l));
+
+        PollParticipant newParticipant = new PollParticipant(new Player(3l, "new"));
+        PollOption newOption = new PollOption(new Player(2l, "new"), mock(PollCommand.class));
+        poll.setPollParticipants(List.of(newParticipant));
+        poll.setPollOptions(List.of(newOption));
+
+        assertNull(poll.getPollParticipant(1l));
+        assertSame(newParticipant, poll.getPollParticipant(3l));
+        assertSame(newOption, poll.getPollOption(2l));
+        assertThrows(IllegalArgumentException.class, () -> poll.castVote(oldParticipant, newOption));
+        assertThrows(IllegalArgumentException.class, () -> poll.castVote(newParticipant, oldOption));
+        poll.castVote(newParticipant, newOption);
+        assertEquals(1, newOption.getSupportersAmount());
+    }
+
+    @Test
+    void testChangeVotes_movesVoteWithoutRemainingVotes() {
+        Poll poll = setupQuorumPoll();
+        poll.castVote(singleVoter, firstOption);
+
+        poll.changeVotes(singleVoter, List.of(firstOption), List.of(secondOption));
+
+        assertEquals(0, firstOption.getSupportersAmount());
+        assertEquals(1, secondOption.getSupportersAmount());
+        assertEquals(0, singleVoter.getRemainingVotes());
+        assertEquals(1, poll.getVoteCount(secondOption));
+    }
+
+    @Test
+    void testChangeVotes_invalidChangeChangesNothing() {
+        Poll poll = setupQuorumPoll();
+        poll.castVote(singleVoter, firstOption);
+        long version = poll.getVersion();
+
+        assertThrows(IllegalArgumentException.class, () -> poll.changeVotes(singleVoter, List.of(firstOption), List.of(secondOption, firstOption)));
+        assertThrows(IllegalArgumentException.class, () -> poll.changeVotes(singleVoter, List.of(firstOption, firstOption), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> poll.changeVotes(singleVoter, List.of(secondOption), List.of(firstOption)));
+
+        assertEquals(1, firstOption.getSupportersAmount());
+        assertEquals(0, secondOption.getSupportersAmount());
+        assertEquals(0, singleVoter.getRemainingVotes());
+        assertEquals(version, poll.getVersion());
+    }
+
+    @Test
+    void testChangeVotes_finishesOnQuorum() {
+        Poll poll = setupQuorumPoll();
+        ScheduledTask finishTask = mock(ScheduledTask.class);
+        poll.setFinishTask(finishTask);
+        poll.setFinishOnQuorum(true);
+        poll.castVote(singleVoter, firstOption);
+
+        poll.changeVotes(doubleVoter, List.of(), List.of(firstOption, secondOption));
+        verify(finishTask).reschedule(0, TimeUnit.SECONDS);
+    }
 }
@@ -18,10 +18,6 @@ public class PrivateResultPollTest {
         PrivateResultPollOption pollOption1 = mock(PrivateResultPollOption.class);
         PrivateResultPollOption pollOption2 = mock(PrivateResultPollOption.class);
         PrivateResultPollOption pollOption3 = mock(PrivateResultPollOption.class);
-        when(pollOption1.getSupportersAmount()).thenReturn(1);
-        when(pollOption2.getSupportersAmount()).thenReturn(2);
-        when(pollOption3.getSupportersAmount()).thenReturn(3);
-
         when(pollOption1.getPollCommand()).thenReturn(mock(PrivatePollCommand.class));
         when(pollOption2.getPollCommand()).thenReturn(mock(PrivatePollCommand.class));
         when(pollOption3.getPollCommand()).thenReturn(mock(PrivatePollCommand.class));
@@ -31,13 +27,19 @@ public class PrivateResultPollTest {
     @Test
     void testFinish() {
         List<PrivateResultPollOption> pollOptions = createMockPollOptions();
+        PollParticipant voter = new PollParticipant(mock(Player.class), 6);
         PrivateResultPoll privateResultPoll = new PrivateResultPoll(
             null, 
             "test", 
             pollOptions,
-            List.of(),
+            List.of(voter),
             0, 
             null);
+        for (int i = 0; i < pollOptions.size(); i++) {
+            for (int votes = 0; votes <= i; votes++) {
+                privateResultPoll.castVote(voter, pollOptions.get(i));
+            }
+        }
         PrivatePollCommand expectedResultCommand = (PrivatePollCommand)pollOptions.get(2).getPollCommand();
         Player player = mock(Player.class);
         when(expectedResultCommand.getInformationOwner()).thenReturn(player);
@@ -0,0 +1,89 @@
+package ch.uzh.ifi.hase.soprafs23.logic.poll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class VoteTallyTest {
+
+    @Test
+    void testNoVotesIsTie() {
+        VoteTally tally = new VoteTally(3, 2);
+        assertTrue(tally.isTie());
+        assertEquals(0, tally.getMaxCount());
+    }
+
+    @Test
+    void testSingleLeader() {
+        VoteTally tally = new VoteTally(3, 3);
+        tally.increment(2);
+        tally.increment(1);
+        tally.increment(2);
+
+        assertFalse(tally.isTie());
+        assertEquals(2, tally.getMaxCount());
+        assertEquals(2, tally.getLeader());
+    }
+
+    @Test
+    void testTie() {
+        VoteTally tally = new VoteTally(3, 2);
+        tally.increment(0);
+        tally.increment(2);
+
+        assertTrue(tally.isTie());
+        assertEquals(1, tally.getMaxCount());
+    }
+
+    @Test
+    void testDecrement_breaksTie() {
+        VoteTally tally = new VoteTally(3, 4);
+        tally.increment(0);
+        tally.increment(0);
+        tally.increment(1);
+        tally.increment(1);
+        tally.decrement(0);
+
+        assertFalse(tally.isTie());
+        assertEquals(1, tally.getLeader());
+    }
+
+    @Test
+    void testDecrement_soleLeaderDropsIntoTie() {
+        VoteTally tally = new VoteTally(3, 3);
+        tally.increment(0);
+        tally.increment(0);
+        tally.increment(1);
+        tally.decrement(0);
+
+        assertTrue(tally.isTie());
+        assertEquals(1, tally.getMaxCount());
+        assertEquals(1, tally.getCount(0));
+        assertEquals(1, tally.getCount(1));
+    }
+
+    @Test
+    void testDecrement_soleLeaderStaysLeader() {
+        VoteTally tally = new VoteTally(3, 3);
+        tally.increment(2);
+        tally.increment(2);
+        tally.decrement(2);
+
+        assertFalse(tally.isTie());
+        assertEquals(1, tally.getMaxCount());
+        assertEquals(2, tally.getLeader());
+    }
+
+    @Test
+    void testIncrement_beyondExpectedVotes() {
+        VoteTally tally = new VoteTally(2, 0);
+        for (int i = 0; i < 5; i++) {
+            tally.increment(1);
+        }
+
+        assertEquals(5, tally.getMaxCount());
+        assertEquals(1, tally.getLeader());
+    }
+}
@@ -0,0 +1,47 @@
+package ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PollCommandTest {
+    private PollCommand createLoggedCommand() {
+        PollCommand command = new KillPlayerPollCommand(null);
+        command.assignSequence();
+        return command;
+    }
+
+    @Test
+    void testAssignSequence_onlyOnce() {
+        PollCommand command = new KillPlayerPollCommand(null);
+        assertEquals(0, command.getSequence());
+        command.assignSequence();
+        long sequence = command.getSequence();
+        assertTrue(sequence > 0);
+        command.assignSequence();
+        assertEquals(sequence, command.getSequence());
+    }
+
+    @Test
+    void testAssignSequence_increasing() {
+        PollCommand first = createLoggedCommand();
+        PollCommand second = createLoggedCommand();
+        assertTrue(first.getSequence() < second.getSequence());
+    }
+
+    @Test
+    void testSince() {
+        PollCommand first = createLoggedCommand();
+        PollCommand second = createLoggedCommand();
+        PollCommand third = createLoggedCommand();
+        List<PollCommand> log = List.of(first, second, third);
+
+        assertEquals(log, PollCommand.since(log, 0));
+        assertEquals(List.of(second, third), PollCommand.since(log, first.getSequence()));
+        assertEquals(List.of(), PollCommand.since(log, third.getSequence()));
+        assertEquals(List.of(), PollCommand.since(List.<PollCommand>of(), 0));
+    }
+}
@@ -1,11 +1,13 @@
 package ch.uzh.ifi.hase.soprafs23.logic.role;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
@@ -17,49 +19,54 @@ import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Werewolf;
 
 public class FractionRoleTest {
-    private Supplier<List<Player>> createMockAlivePlayersGetter (List<Player> expected) {
+    private Supplier<List<Player>> createAlivePlayersGetter (List<Player> expected) {
         return new Supplier<List<Player>>() {
             @Override
             public List<Player> get() {
                 return expected.stream().filter(Player::isAlive).toList();
             }
-            
+
         };
     }
 
-    private Player createMockPlayer() {
-        Player player = mock(Player.class);
-        when(player.isAlive()).thenReturn(true);
-        return player;
+    private List<Player> getAlivePlayers(int count) {
+        List<Player> players = new ArrayList<>();
+        for (long id = 0; id < count; id++) {
+            players.add(new Player(id, "player" + id));
+        }
+        return players;
     }
 
-    private List<Player> getAlivePlayers() {
-        return List.of(
-            createMockPlayer(),
-            createMockPlayer(),
-            createMockPlayer(),
-            createMockPlayer()
-        );
+    /**
+     * Win condition as it was computed before alive members were counted.
+     */
+    private boolean hasWonByScan(FractionRole fraction, List<Player> players) {
+        for (Player player : players) {
+            if (player.isAlive() && !fraction.getPlayers().contains(player)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Test
     void testHasWon() {
-        List<Player> expected = getAlivePlayers();
-        Villager villager = new Villager(0, null, createMockAlivePlayersGetter(expected), mock(TiedPollDecider.class));
+        List<Player> expected = getAlivePlayers(4);
+        Villager villager = new Villager(0, null, createAlivePlayersGetter(expected), mock(TiedPollDecider.class));
         villager.addPlayer(expected.get(0));
         villager.addPlayer(expected.get(1));
         villager.addPlayer(expected.get(3));
         assertFalse(villager.hasWon());
-        when(expected.get(2).isAlive()).thenReturn(false);
+        expected.get(2).killPlayer();
         assertTrue(villager.hasWon());
     }
 
     @Test
     void testHasWon_multipleFractions() {
-        List<Player> expected = getAlivePlayers();
-        Villager villager = new Villager(0, null, createMockAlivePlayersGetter(expected), mock(TiedPollDecider.class));
-        Werewolf werewolf = new Werewolf(0, createMockAlivePlayersGetter(expected));
-        Lover lover = new Lover(createMockAlivePlayersGetter(expected), null);
+        List<Player> expected = getAlivePlayers(4);
+        Villager villager = new Villager(0, null, createAlivePlayersGetter(expected), mock(TiedPollDecider.class));
+        Werewolf werewolf = new Werewolf(0, createAlivePlayersGetter(expected));
+        Lover lover = new Lover(createAlivePlayersGetter(expected), null);
         villager.addPlayer(expected.get(0));
         villager.addPlayer(expected.get(1));
         werewolf.addPlayer(expected.get(2));
@@ -68,8 +75,64 @@ public class FractionRoleTest {
         lover.addPlayer(expected.get(2));
 
         assertFalse(villager.hasWon());
-        when(expected.get(0).isAlive()).thenReturn(false);
-        when(expected.get(3).isAlive()).thenReturn(false);
+        expected.get(0).killPlayer();
+        expected.get(3).killPlayer();
         assertTrue(lover.hasWon());
     }
+
+    @Test
+    void testGetAliveMemberCount() {
+        List<Player> expected = getAlivePlayers(3);
+        Werewolf werewolf = new Werewolf(0, createAlivePlayersGetter(expected));
+        expected.get(1).killPlayer();
+        werewolf.addPlayer(expected.get(0));
+        werewolf.addPlayer(expected.get(1));
+        werewolf.addPlayer(expected.get(0));
+        assertEquals(1, werewolf.getAliveMemberCount());
+
+        expected.get(1).revivePlayer();
+        assertEquals(2, werewolf.getAliveMemberCount());
+        expected.get(2).killPlayer();
+        assertEquals(2, werewolf.getAliveMemberCount());
+
+        werewolf.clearPlayers();
+        expected.get(0).killPlayer();
+        expected.get(0).revivePlayer();
+        assertEquals(0, werewolf.getAliveMemberCount());
+    }
+
+    @Test
+    void testHasWon_matchesScanInRandomGames() {
+        Random random = new Random(23);
+        for (int game = 0; game < 200; game++) {
+            List<Player> players = getAlivePlayers(5 + random.nextInt(16));
+            Supplier<List<Player>> alivePlayersGetter = createAlivePlayersGetter(players);
+            Werewolf werewolf = new Werewolf(0, alivePlayersGetter);
+            Villager villager = new Villager(0, null, alivePlayersGetter, mock(TiedPollDecider.class));
+            Lover lover = new Lover(alivePlayersGetter, command -> {});
+            List<FractionRole> fractions = List.of(werewolf, villager, lover);
+            int werewolfCount = players.size() / 3;
+            for (int i = 0; i < players.size(); i++) {
+                (i < werewolfCount ? werewolf : villager).addPlayer(players.get(i));
+            }
+            lover.addPlayer(players.get(random.nextInt(players.size())));
+            lover.addPlayer(players.get(random.nextInt(players.size())));
+
+            for (int step = 0; step < 3 * players.size(); step++) {
+                Player player = players.get(random.nextInt(players.size()));
+                int event = random.nextInt(4);
+                if (event == 0) {
+                    player.revivePlayer();
+                } else if (event == 1) {
+                    player.setDeadPlayerUnrevivable();
+                } else {
+                    player.killPlayer();
+                }
+                for (FractionRole fraction : fractions) {
+                    assertEquals(hasWonByScan(fraction, players), fraction.hasWon(),
+                        String.format("game %d, step %d, %s", game, step, fraction.getName()));
+                }
+            }
+        }
+    }
 }
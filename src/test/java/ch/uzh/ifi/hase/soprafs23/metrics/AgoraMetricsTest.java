@@ -0,0 +1,34 @@
+package ch.uzh.ifi.hase.soprafs23.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.agora.Agora;
+import ch.uzh.ifi.hase.soprafs23.service.AgoraService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AgoraMetricsTest {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testLatencyTimers_recordFromBinding() {
+        new AgoraMetrics(mock(AgoraService.class)).bindTo(registry);
+
+        Agora.getCallLatency().record(TimeUnit.MILLISECONDS.toNanos(20));
+        Agora.getBatchLatency().record(TimeUnit.MILLISECONDS.toNanos(40));
+
+        Timer calls = registry.get("werewolf.agora.calls").timer();
+        Timer batches = registry.get("werewolf.agora.batches").timer();
+        assertEquals(1, calls.count());
+        assertEquals(20, calls.max(TimeUnit.MILLISECONDS), 1e-9);
+        assertEquals(1, batches.count());
+        assertEquals(40, batches.totalTime(TimeUnit.MILLISECONDS), 1e-9);
+        assertNull(registry.find("werewolf.agora.calls.p99").meter());
+    }
+}
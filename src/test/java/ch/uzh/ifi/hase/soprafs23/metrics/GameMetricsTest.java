@@ -0,0 +1,90 @@
+package ch.uzh.ifi.hase.soprafs23.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.logic.game.Stage;
+import ch.uzh.ifi.hase.soprafs23.logic.game.StageType;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.service.GameService;
+import ch.uzh.ifi.hase.soprafs23.service.LobbyService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class GameMetricsTest {
+    LobbyService lobbyService = mock(LobbyService.class);
+    GameService gameService = mock(GameService.class);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    GameMetrics gameMetrics;
+
+    private Game createMockGame(boolean started, boolean finished, StageType stageType, boolean openPoll) {
+        Game game = mock(Game.class);
+        Stage stage = mock(Stage.class);
+        when(stage.getType()).thenReturn(stageType);
+        when(game.isStarted()).thenReturn(started);
+        when(game.isFinished()).thenReturn(finished);
+        when(game.getCurrentStage()).thenReturn(stage);
+        when(game.hasOpenPoll()).thenReturn(openPoll);
+        return game;
+    }
+
+    @BeforeEach
+    void setup() {
+        gameMetrics = new GameMetrics(lobbyService, gameService);
+        gameMetrics.bindTo(registry);
+    }
+
+    @Test
+    void testRegistersAsGameObserver() {
+        verify(gameService).addGameObserver(gameMetrics);
+    }
+
+    @Test
+    void testGauges() {
+        List<Lobby> lobbies = List.of(mock(Lobby.class), mock(Lobby.class), mock(Lobby.class));
+        when(lobbyService.getLobbies()).thenReturn(lobbies);
+        List<Game> games = List.of(
+            createMockGame(true, false, StageType.Night, true),
+            createMockGame(true, false, StageType.Day, false),
+            createMockGame(true, false, StageType.Day, true),
+            createMockGame(true, true, StageType.Day, false),
+            createMockGame(false, false, StageType.Night, false));
+        when(gameService.getGames()).thenReturn(games);
+        when(gameService.getVotesCast()).thenReturn(7l);
+
+        assertEquals(3, registry.get("werewolf.lobbies.active").gauge().value());
+        assertEquals(3, registry.get("werewolf.games.active").gauge().value());
+        assertEquals(1, registry.get("werewolf.games.stage").tag("stage", "Night").gauge().value());
+        assertEquals(2, registry.get("werewolf.games.stage").tag("stage", "Day").gauge().value());
+        assertEquals(2, registry.get("werewolf.polls.open").gauge().value());
+        assertEquals(7, registry.get("werewolf.poll.votes").functionCounter().count());
+    }
+
+    @Test
+    void testPollFinalizationLatency() {
+        Poll poll = mock(Poll.class);
+        when(poll.getFinishDue()).thenReturn(new Date(System.currentTimeMillis() - 250));
+        gameMetrics.onPollFinished(mock(Game.class), poll);
+
+        // finished before it was due
+        when(poll.getFinishDue()).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+        gameMetrics.onPollFinished(mock(Game.class), poll);
+
+        Timer timer = registry.get("werewolf.poll.finalization").timer();
+        assertEquals(2, timer.count());
+        assertTrue(timer.max(TimeUnit.MILLISECONDS) >= 250);
+        assertTrue(timer.max(TimeUnit.MILLISECONDS) < 60_000);
+    }
+}
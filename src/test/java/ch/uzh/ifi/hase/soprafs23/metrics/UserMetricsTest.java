@@ -0,0 +1,44 @@
+package ch.uzh.ifi.hase.soprafs23.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.entity.User;
+import ch.uzh.ifi.hase.soprafs23.service.UserService;
+import ch.uzh.ifi.hase.soprafs23.service.UserTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UserMetricsTest {
+    UserService userService = mock(UserService.class);
+    UserTokenCache tokenCache = new UserTokenCache(1);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private User createUser(String token) {
+        User user = new User();
+        user.setToken(token);
+        return user;
+    }
+
+    @BeforeEach
+    void setup() {
+        when(userService.getTokenCache()).thenReturn(tokenCache);
+        new UserMetrics(userService).bindTo(registry);
+    }
+
+    @Test
+    void testTokenCacheMeters() {
+        tokenCache.put(createUser("first"));
+        tokenCache.get("first");
+        tokenCache.get("unknown");
+        tokenCache.put(createUser("second"));
+
+        assertEquals(1, registry.get("werewolf.users.token.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("werewolf.users.token.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("werewolf.users.token.cache.evictions").functionCounter().count());
+        assertEquals(1, registry.get("werewolf.users.token.cache.size").gauge().value());
+    }
+}
@@ -5,8 +5,13 @@ import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
 import ch.uzh.ifi.hase.soprafs23.rest.logicmapper.LogicEntityMapper;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class AgoraServiceTest {
 
@@ -26,4 +31,60 @@ public class AgoraServiceTest {
         assertNotNull(token);
         assertFalse(token.isEmpty());
     }
+
+    @Test
+    void testGetVoiceChannelToken_cachedPerLobbyAndUser() {
+        Clock clock = mock(Clock.class);
+        Instant start = Instant.parse("2023-05-01T10:00:00Z");
+        when(clock.instant()).thenReturn(start);
+        AgoraService service = new AgoraService(clock);
+        User user = createTestUser(1l, "test");
+        User other = createTestUser(2l, "other");
+        Lobby lobby = new Lobby(1L, LogicEntityMapper.createPlayerFromUser(user));
+        Lobby otherLobby = new Lobby(2L, LogicEntityMapper.createPlayerFromUser(user));
+
+        String token = service.createVoiceChannelToken(lobby, user);
+        assertEquals(token, service.createVoiceChannelToken(lobby, user));
+        assertNotEquals(token, service.createVoiceChannelToken(lobby, other));
+        assertNotEquals(token, service.createVoiceChannelToken(otherLobby, user));
+
+        when(clock.instant()).thenReturn(start.plus(Duration.ofHours(1)));
+        assertEquals(token, service.createVoiceChannelToken(lobby, user));
+
+        // shortly before the token expires a new one is built
+        when(clock.instant()).thenReturn(start.plus(Duration.ofMinutes(115)));
+        assertNotEquals(token, service.createVoiceChannelToken(lobby, user));
+
+        assertEquals(2, service.getTokenCacheHits());
+        assertEquals(4, service.getTokenCacheMisses());
+    }
+
+    @Test
+    void testGetVoiceChannelToken_expiredTokensSweptPeriodically() {
+        Clock clock = mock(Clock.class);
+        Instant start = Instant.parse("2023-05-01T10:00:00Z");
+        AgoraService service = new AgoraService(clock);
+        User user = createTestUser(1l, "test");
+        User other = createTestUser(2l, "other");
+        Lobby lobby = new Lobby(1L, LogicEntityMapper.createPlayerFromUser(user));
+
+        when(clock.instant()).thenReturn(start);
+        service.createVoiceChannelToken(lobby, user);
+        when(clock.instant()).thenReturn(start.plus(Duration.ofMinutes(5)));
+        service.createVoiceChannelToken(lobby, other);
+
+        // only the token of user has expired
+        when(clock.instant()).thenReturn(start.plus(Duration.ofMinutes(121)));
+        service.createVoiceChannelToken(new Lobby(2L, LogicEntityMapper.createPlayerFromUser(user)), other);
+        assertEquals(2, service.getTokenCacheSize());
+
+        // the token of other has expired too, but the last sweep was less than ten minutes ago
+        when(clock.instant()).thenReturn(start.plus(Duration.ofMinutes(126)));
+        service.createVoiceChannelToken(new Lobby(3L, LogicEntityMapper.createPlayerFromUser(user)), other);
+        assertEquals(3, service.getTokenCacheSize());
+
+        when(clock.instant()).thenReturn(start.plus(Duration.ofMinutes(132)));
+        service.createVoiceChannelToken(new Lobby(4L, LogicEntityMapper.createPlayerFromUser(user)), other);
+        assertEquals(3, service.getTokenCacheSize());
+    }
 }
@@ -0,0 +1,203 @@
+package ch.uzh.ifi.hase.soprafs23.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.logic.game.GameMailbox;
+import ch.uzh.ifi.hase.soprafs23.logic.game.Stage;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PrivatePollCommand;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Werewolf;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.GameGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.PollGetDTO;
+
+public class GameEventServiceTest {
+    private final Queue<Runnable> sendQueue = new LinkedList<>();
+    private final List<SseEmitter> emitters = new ArrayList<>();
+    private final GameEventService gameEventService = new GameEventService(new GameService(), sendQueue::add, () -> {
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitters.add(emitter);
+        return emitter;
+    });
+
+    private final Player admin = new Player(1l, "admin");
+    private final Player player = new Player(2l, "player");
+    private final Lobby lobby = new Lobby(1l, admin);
+
+    private void runSender() {
+        while (!sendQueue.isEmpty()) {
+            sendQueue.poll().run();
+        }
+    }
+
+    /**
+     * @return name and payload of every event sent to the emitter, in order
+     */
+    private List<Object[]> sentEvents(SseEmitter emitter) throws IOException {
+        ArgumentCaptor<SseEventBuilder> captor = ArgumentCaptor.forClass(SseEventBuilder.class);
+        verify(emitter, atLeastOnce()).send(captor.capture());
+        List<Object[]> events = new ArrayList<>();
+        for (SseEventBuilder builder : captor.getAllValues()) {
+            Set<DataWithMediaType> parts = builder.build();
+            String name = null;
+            Object data = null;
+            for (DataWithMediaType part : parts) {
+                if (part.getData() instanceof String text && text.startsWith("event:")) {
+                    name = text.substring("event:".length(), text.indexOf('\n'));
+                } else if (!(part.getData() instanceof String)) {
+                    data = part.getData();
+                }
+            }
+            events.add(new Object[] {name, data});
+        }
+        return events;
+    }
+
+    private Game createGameWithPoll() {
+        lobby.addPlayer(player);
+        Game game = mock(Game.class);
+        when(game.getLobby()).thenReturn(lobby);
+        when(game.getMailbox()).thenReturn(new GameMailbox(Runnable::run));
+        when(game.getCurrentStage()).thenReturn(mock(Stage.class));
+        Poll poll = new Poll(Werewolf.class, "", List.of(new PollOption(player, mock(PollCommand.class))), List.of(new PollParticipant(admin)), 15, null);
+        when(game.getCurrentPoll()).thenReturn(poll);
+        return game;
+    }
+
+    @Test
+    void testSubscribe_sendsLobby() throws IOException {
+        gameEventService.subscribe(lobby, admin);
+        runSender();
+
+        List<Object[]> events = sentEvents(emitters.get(0));
+        assertEquals(1, events.size());
+        assertEquals(GameEventService.LOBBY_EVENT, events.get(0)[0]);
+        assertTrue(lobby.isObserver(gameEventService));
+    }
+
+    @Test
+    void testOnLobbyUpdated_coalescesPendingEvents() throws IOException {
+        gameEventService.subscribe(lobby, admin);
+        lobby.addPlayer(player);
+        lobby.setPartyVoteDurationSeconds(30);
+        runSender();
+
+        List<Object[]> events = sentEvents(emitters.get(0));
+        assertEquals(1, events.size());
+        assertEquals(GameEventService.LOBBY_EVENT, events.get(0)[0]);
+    }
+
+    @Test
+    void testOnPollUpdated_censorsNonParticipants() throws IOException {
+        Game game = createGameWithPoll();
+        gameEventService.subscribe(lobby, admin);
+        gameEventService.subscribe(lobby, player);
+        runSender();
+
+        gameEventService.onPollUpdated(game);
+        runSender();
+
+        PollGetDTO participantPoll = (PollGetDTO) sentEvents(emitters.get(0)).get(1)[1];
+        PollGetDTO censoredPoll = (PollGetDTO) sentEvents(emitters.get(1)).get(1)[1];
+        assertEquals(1, participantPoll.getParticipants().size());
+        assertEquals(1, participantPoll.getPollOptions().size());
+        assertTrue(censoredPoll.getParticipants().isEmpty());
+        assertTrue(censoredPoll.getPollOptions().isEmpty());
+    }
+
+    @Test
+    void testOnNewStage_addsPrivateActionsPerPlayer() throws IOException {
+        Game game = createGameWithPoll();
+        PrivatePollCommand privateCommand = mock(PrivatePollCommand.class);
+        when(privateCommand.getAffectedPlayer()).thenReturn(player);
+        when(privateCommand.getSequence()).thenReturn(1l);
+        admin.addPrivatePollCommand(privateCommand);
+        gameEventService.subscribe(lobby, admin);
+        gameEventService.subscribe(lobby, player);
+        runSender();
+
+        gameEventService.onNewStage(game);
+        runSender();
+
+        GameGetDTO adminGame = (GameGetDTO) sentEvents(emitters.get(0)).get(1)[1];
+        GameGetDTO playerGame = (GameGetDTO) sentEvents(emitters.get(1)).get(1)[1];
+        assertEquals(1, adminGame.getActions().size());
+        assertTrue(playerGame.getActions().isEmpty());
+        assertSame(adminGame.getStage(), playerGame.getStage());
+        assertSame(adminGame.getLobby(), playerGame.getLobby());
+    }
+
+    @Test
+    void testSubscribe_replacesPreviousStream() {
+        gameEventService.subscribe(lobby, admin);
+        gameEventService.subscribe(lobby, admin);
+
+        verify(emitters.get(0)).complete();
+        assertEquals(1, gameEventService.getSubscriberCount(lobby));
+    }
+
+    @Test
+    void testOnLobbyUpdated_closesStreamsOfPlayersWhoLeft() throws IOException {
+        lobby.addPlayer(player);
+        gameEventService.subscribe(lobby, admin);
+        gameEventService.subscribe(lobby, player);
+        runSender();
+
+        lobby.removePlayer(player);
+        runSender();
+
+        verify(emitters.get(1)).complete();
+        assertEquals(1, gameEventService.getSubscriberCount(lobby));
+        assertEquals(2, sentEvents(emitters.get(0)).size());
+        assertEquals(1, sentEvents(emitters.get(1)).size());
+    }
+
+    @Test
+    void testOnLobbyDissolved_completesStreams() throws IOException {
+        gameEventService.subscribe(lobby, admin);
+        runSender();
+        lobby.dissolve();
+        runSender();
+
+        List<Object[]> events = sentEvents(emitters.get(0));
+        assertEquals(GameEventService.DISSOLVED_EVENT, events.get(events.size() - 1)[0]);
+        verify(emitters.get(0)).complete();
+        assertEquals(0, gameEventService.getSubscriberCount(lobby));
+    }
+
+    @Test
+    void testSendFailure_removesStream() throws IOException {
+        gameEventService.subscribe(lobby, admin);
+        doThrow(new IOException("broken pipe")).when(emitters.get(0)).send(any(SseEventBuilder.class));
+        runSender();
+
+        verify(emitters.get(0)).complete();
+        assertEquals(0, gameEventService.getSubscriberCount(lobby));
+    }
+}
@@ -1,7 +1,11 @@
 package ch.uzh.ifi.hase.soprafs23.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -15,14 +19,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import ch.uzh.ifi.hase.soprafs23.constant.VoteAction;
 import ch.uzh.ifi.hase.soprafs23.entity.User;
 import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.logic.game.GameMailbox;
+import ch.uzh.ifi.hase.soprafs23.logic.game.Stage;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
 import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
 import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.KillPlayerPollCommand;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PrivateLoverNotificationPollCommand;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PrivatePollCommand;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.GameGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.PollCommandGetDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.PollGetDTO;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.VoteChangeDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.PollOptionGetDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.PollParticipantGetDTO;
 
@@ -36,6 +51,12 @@ public class GameServiceTest {
         return mockLobby;
     }
 
+    private Game createMockGame() {
+        Game game = mock(Game.class);
+        when(game.getMailbox()).thenReturn(new GameMailbox(Runnable::run));
+        return game;
+    }
+
     @Test
     void testCreateNewGame() {
         Lobby lobby = createValidMockLobby();
@@ -53,7 +74,7 @@ public class GameServiceTest {
 
     @Test
     void testStartGame() {
-        Game game = mock(Game.class);
+        Game game = createMockGame();
         gameService.startGame(game);
         verify(game).startGame();
     }
@@ -70,11 +91,8 @@ public class GameServiceTest {
     void testValidateParticipant() {
         Poll poll = mock(Poll.class);
         User user = mock(User.class);
-        Player player = mock(Player.class);
         PollParticipant participant = mock(PollParticipant.class);
-        when(poll.getPollParticipants()).thenReturn(List.of(participant));
-        when(participant.getPlayer()).thenReturn(player);
-        when(player.getId()).thenReturn(1l);
+        when(poll.getPollParticipant(1l)).thenReturn(participant);
         when(user.getId()).thenReturn(1l);
 
         gameService.validateParticipant(poll, user);
@@ -84,11 +102,7 @@ public class GameServiceTest {
     void testValidateParticipant_notParticipant() {
         Poll poll = mock(Poll.class);
         User user = mock(User.class);
-        Player player = mock(Player.class);
-        PollParticipant participant = mock(PollParticipant.class);
-        when(poll.getPollParticipants()).thenReturn(List.of(participant));
-        when(participant.getPlayer()).thenReturn(player);
-        when(player.getId()).thenReturn(1l);
+        when(poll.getPollParticipant(1l)).thenReturn(mock(PollParticipant.class));
         when(user.getId()).thenReturn(2l);
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, ()->gameService.validateParticipant(poll, user));
@@ -112,11 +126,9 @@ public class GameServiceTest {
     void testGetParticipant() {
         Poll poll = mock(Poll.class);
         User user = mock(User.class);
-        Player player = mock(Player.class);
         PollParticipant expectedParticipant = mock(PollParticipant.class);
-        when(poll.getPollParticipants()).thenReturn(List.of(expectedParticipant, mock(PollParticipant.class)));
-        when(expectedParticipant.getPlayer()).thenReturn(player);
-        when(player.getId()).thenReturn(1l);
+        when(poll.getPollParticipant(1l)).thenReturn(expectedParticipant);
+        when(poll.getPollParticipant(2l)).thenReturn(mock(PollParticipant.class));
         when(user.getId()).thenReturn(1l);
 
         assertEquals(expectedParticipant, gameService.getParticipant(poll, user));
@@ -127,13 +139,8 @@ public class GameServiceTest {
         Poll poll = mock(Poll.class);
         PollOption expected = mock(PollOption.class);
         PollOption unexptedted = mock(PollOption.class);
-        Player p1 = mock(Player.class);
-        Player p2 = mock(Player.class);
-        when(expected.getPlayer()).thenReturn(p1);
-        when(unexptedted.getPlayer()).thenReturn(p2);
-        when(p1.getId()).thenReturn(1l);
-        when(p2.getId()).thenReturn(2l);
-        when(poll.getPollOptions()).thenReturn(List.of(expected, unexptedted));
+        when(poll.getPollOption(1l)).thenReturn(expected);
+        when(poll.getPollOption(2l)).thenReturn(unexptedted);
 
         assertEquals(expected, gameService.getPollOption(poll, 1l));
     }
@@ -143,13 +150,8 @@ public class GameServiceTest {
         Poll poll = mock(Poll.class);
         PollOption expected = mock(PollOption.class);
         PollOption unexptedted = mock(PollOption.class);
-        Player p1 = mock(Player.class);
-        Player p2 = mock(Player.class);
-        when(expected.getPlayer()).thenReturn(p1);
-        when(unexptedted.getPlayer()).thenReturn(p2);
-        when(p1.getId()).thenReturn(1l);
-        when(p2.getId()).thenReturn(2l);
-        when(poll.getPollOptions()).thenReturn(List.of(expected, unexptedted));
+        when(poll.getPollOption(1l)).thenReturn(expected);
+        when(poll.getPollOption(2l)).thenReturn(unexptedted);
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, ()->gameService.getPollOption(poll, 3l));
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
@@ -157,44 +159,48 @@ public class GameServiceTest {
 
     @Test
     void testCastVote() {
+        Game game = createMockGame();
         Poll poll = mock(Poll.class);
         PollParticipant participant = mock(PollParticipant.class);
         PollOption option = mock(PollOption.class);
 
-        gameService.castVote(poll, participant, option);
+        gameService.castVote(game, poll, participant, option);
         verify(poll).castVote(participant, option);
     }
 
     @Test
     void testCastVote_illegalVote() {
+        Game game = createMockGame();
         Poll poll = mock(Poll.class);
         PollParticipant participant = mock(PollParticipant.class);
         PollOption option = mock(PollOption.class);
 
         doThrow(new IllegalArgumentException("test")).when(poll).castVote(participant, option);
-        ResponseStatusException exception = assertThrows(ResponseStatusException.class, ()->gameService.castVote(poll, participant, option));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, ()->gameService.castVote(game, poll, participant, option));
         assertEquals(HttpStatus.FORBIDDEN, exception.getStatus());
         assertEquals("test", exception.getReason());   
     }
 
     @Test
     void testRemoveVote() {
+        Game game = createMockGame();
         Poll poll = mock(Poll.class);
         PollParticipant participant = mock(PollParticipant.class);
         PollOption option = mock(PollOption.class);
 
-        gameService.removeVote(poll, participant, option);
+        gameService.removeVote(game, poll, participant, option);
         verify(poll).removeVote(participant, option);
     }
 
     @Test
     void testRemoveVote_illegalRemove() {
+        Game game = createMockGame();
         Poll poll = mock(Poll.class);
         PollParticipant participant = mock(PollParticipant.class);
         PollOption option = mock(PollOption.class);
 
         doThrow(new IllegalArgumentException("test")).when(poll).removeVote(participant, option);
-        ResponseStatusException exception = assertThrows(ResponseStatusException.class, ()->gameService.removeVote(poll, participant, option));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, ()->gameService.removeVote(game, poll, participant, option));
         assertEquals(HttpStatus.FORBIDDEN, exception.getStatus());
         assertEquals("test", exception.getReason());   
     }
@@ -214,6 +220,56 @@ public class GameServiceTest {
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
     }
 
+    @Test
+    void testGetGameETag() {
+        Game game = mock(Game.class);
+        Lobby lobby = mock(Lobby.class);
+        Player player = new Player(1l, "player");
+        when(game.getLobby()).thenReturn(lobby);
+        when(game.getVersion()).thenReturn(3l);
+        when(lobby.getVersion()).thenReturn(4l);
+
+        String eTag = gameService.getGameETag(game, player);
+        assertEquals(eTag, gameService.getGameETag(game, player));
+        player.addPrivatePollCommand(mock(PrivatePollCommand.class));
+        assertNotEquals(eTag, gameService.getGameETag(game, player));
+    }
+
+    @Test
+    void testGetPollETag_dependsOnCensoring() {
+        Game game = mock(Game.class);
+        Lobby lobby = mock(Lobby.class);
+        Poll poll = mock(Poll.class);
+        when(game.getLobby()).thenReturn(lobby);
+        when(poll.getVersion()).thenReturn(5l);
+
+        assertNotEquals(gameService.getPollETag(game, poll, true), gameService.getPollETag(game, poll, false));
+    }
+
+    @Test
+    void testToPollCommandGetDTO_cached() {
+        PollCommand command = new KillPlayerPollCommand(new Player(1l, "player"));
+        command.assignSequence();
+        PollCommandGetDTO first = gameService.toPollCommandGetDTO(command);
+        assertSame(first, gameService.toPollCommandGetDTO(command));
+        assertEquals(command.getSequence(), first.getSequence());
+    }
+
+    @Test
+    void testMergePlayerPollCommandsToGameGetDTO_since() {
+        Player player = new Player(1l, "player");
+        PrivatePollCommand seen = new PrivateLoverNotificationPollCommand(player, player);
+        PrivatePollCommand unseen = new PrivateLoverNotificationPollCommand(player, player);
+        player.addPrivatePollCommand(seen);
+        player.addPrivatePollCommand(unseen);
+        GameGetDTO gameGetDTO = new GameGetDTO();
+        gameGetDTO.setActions(List.of());
+
+        gameService.mergePlayerPollCommandsToGameGetDTO(gameGetDTO, player, seen.getSequence());
+        assertEquals(1, gameGetDTO.getActions().size());
+        assertEquals(unseen.getSequence(), gameGetDTO.getActions().get(0).getSequence());
+    }
+
     @Test
     void testOnNewPoll() {
         Game game = mock(Game.class);
@@ -229,6 +285,24 @@ public class GameServiceTest {
         gameService.onNewPoll(game);
 
         verify(poll).setScheduledFinish(date);
+        verify(poll).setFinishOnQuorum(true);
+    }
+
+    @Test
+    void testOnNewPoll_finishesEarlyOnQuorum() throws InterruptedException {
+        Game game = mock(Game.class);
+        PollParticipant participant = new PollParticipant(mock(Player.class));
+        PollOption option = new PollOption(mock(Player.class), mock(PollCommand.class));
+        Poll poll = new Poll(null, "", List.of(option), List.of(participant), 60, null);
+        when(game.getCurrentPoll()).thenReturn(poll);
+        gameService.onNewPoll(game);
+
+        poll.castVote(participant, option);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!poll.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(poll.isFinished());
     }
 
     @Test
@@ -241,4 +315,132 @@ public class GameServiceTest {
         gameService.onLobbyDissolved(lobby);
         assertThrows(ResponseStatusException.class, ()->gameService.getGame(lobby));
     }
+
+    @Test
+    void testCastVote_finishedPoll() {
+        Game game = createMockGame();
+        PollParticipant participant = new PollParticipant(mock(Player.class), 2);
+        PollOption option = new PollOption(mock(Player.class), mock(PollCommand.class));
+        Poll poll = new Poll(null, "", List.of(option), List.of(participant), 0, null);
+        poll.castVote(participant, option);
+        poll.finish();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, ()->gameService.castVote(game, poll, participant, option));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatus());
+    }
+
+    @Test
+    void testToPollGetDTO_runsInMailbox() {
+        GameMailbox mailbox = mock(GameMailbox.class);
+        Game game = mock(Game.class);
+        Poll poll = mock(Poll.class);
+        PollGetDTO expected = new PollGetDTO();
+        when(game.getMailbox()).thenReturn(mailbox);
+        when(mailbox.call(Mockito.any())).thenReturn(expected);
+
+        assertEquals(expected, gameService.toPollGetDTO(game, poll));
+    }
+
+    private Game createSnapshotGame(Poll poll) {
+        Game game = createMockGame();
+        Lobby lobby = new Lobby(1l, new Player(1l, "player"));
+        when(game.getLobby()).thenReturn(lobby);
+        when(game.getCurrentStage()).thenReturn(mock(Stage.class));
+        when(game.getCurrentPoll()).thenReturn(poll);
+        return game;
+    }
+
+    @Test
+    void testToPollGetDTO_sharedUntilChanged() {
+        PollParticipant participant = new PollParticipant(new Player(1l, "player"));
+        PollOption option = new PollOption(new Player(2l, "other"), mock(PollCommand.class));
+        Poll poll = new Poll(Villager.class, "", List.of(option), List.of(participant), 60, null);
+        Game game = createSnapshotGame(poll);
+
+        PollGetDTO full = gameService.toPollGetDTO(game, poll, true);
+        PollGetDTO censored = gameService.toPollGetDTO(game, poll, false);
+        assertSame(full, gameService.toPollGetDTO(game, poll, true));
+        assertSame(censored, gameService.toPollGetDTO(game, poll, false));
+        assertEquals(1, full.getParticipants().size());
+        assertTrue(censored.getParticipants().isEmpty());
+
+        poll.castVote(participant, option);
+        assertNotSame(full, gameService.toPollGetDTO(game, poll, true));
+    }
+
+    @Test
+    void testToGameGetDTO_copiesSharedSnapshot() {
+        Game game = createSnapshotGame(null);
+        when(game.getCurrentPoll()).thenThrow(new IllegalStateException());
+        when(game.getPollCommands()).thenReturn(List.of());
+
+        GameGetDTO first = gameService.toGameGetDTO(game);
+        GameGetDTO second = gameService.toGameGetDTO(game);
+        assertNotSame(first, second);
+        assertSame(first.getLobby(), second.getLobby());
+        first.setActions(List.of(new PollCommandGetDTO()));
+        assertTrue(gameService.toGameGetDTO(game).getActions().isEmpty());
+    }
+
+    private VoteChangeDTO createVoteChange(VoteAction action, Long optionId) {
+        VoteChangeDTO voteChange = new VoteChangeDTO();
+        voteChange.setAction(action);
+        voteChange.setOptionId(optionId);
+        return voteChange;
+    }
+
+    @Test
+    void testChangeVotes_movesVote() {
+        Game game = createMockGame();
+        PollParticipant participant = new PollParticipant(new Player(1l, "voter"));
+        PollOption first = new PollOption(new Player(2l, "first"), mock(PollCommand.class));
+        PollOption second = new PollOption(new Player(3l, "second"), mock(PollCommand.class));
+        Poll poll = new Poll(Villager.class, "", List.of(first, second), List.of(participant), 60, null);
+        poll.castVote(participant, first);
+
+        gameService.changeVotes(game, poll, participant, List.of(createVoteChange(VoteAction.ADD, 3l), createVoteChange(VoteAction.REMOVE, 2l)));
+
+        assertEquals(0, first.getSupportersAmount());
+        assertEquals(1, second.getSupportersAmount());
+        assertEquals(0, participant.getRemainingVotes());
+    }
+
+    @Test
+    void testChangeVotes_unknownOption() {
+        Game game = createMockGame();
+        Poll poll = mock(Poll.class);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            ()->gameService.changeVotes(game, poll, mock(PollParticipant.class), List.of(createVoteChange(VoteAction.ADD, 3l))));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    }
+
+    @Test
+    void testChangeVotes_missingAction() {
+        Game game = createMockGame();
+        Poll poll = mock(Poll.class);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            ()->gameService.changeVotes(game, poll, mock(PollParticipant.class), List.of(createVoteChange(null, 3l))));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void testChangeVotes_empty() {
+        Game game = createMockGame();
+        Poll poll = mock(Poll.class);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            ()->gameService.changeVotes(game, poll, mock(PollParticipant.class), List.of()));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verify(poll, Mockito.never()).changeVotes(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void testChangeVotes_illegalChange() {
+        Game game = createMockGame();
+        Poll poll = mock(Poll.class);
+        when(poll.getPollOption(3l)).thenReturn(mock(PollOption.class));
+        doThrow(IllegalArgumentException.class).when(poll).changeVotes(Mockito.any(), Mockito.any(), Mockito.any());
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            ()->gameService.changeVotes(game, poll, mock(PollParticipant.class), List.of(createVoteChange(VoteAction.REMOVE, 3l))));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatus());
+    }
 }
@@ -0,0 +1,116 @@
+package ch.uzh.ifi.hase.soprafs23.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.Game;
+import ch.uzh.ifi.hase.soprafs23.logic.game.Stage;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.Poll;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollOption;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.PollParticipant;
+import ch.uzh.ifi.hase.soprafs23.logic.poll.pollcommand.PollCommand;
+import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.PollCommandGetDTO;
+
+public class GameSnapshotTest {
+    private final Function<List<PollCommand>, List<PollCommandGetDTO>> noActions = commands -> List.of();
+
+    private Game game;
+    private Lobby lobby;
+    private PollParticipant participant;
+    private PollOption option;
+    private Poll poll;
+
+    @BeforeEach
+    void setup() {
+        Player player = new Player(1l, "player");
+        lobby = new Lobby(1l, player);
+        participant = new PollParticipant(player);
+        option = new PollOption(player, mock(PollCommand.class));
+        poll = new Poll(Villager.class, "question", List.of(option), List.of(participant), 60, null);
+
+        game = mock(Game.class);
+        when(game.getLobby()).thenReturn(lobby);
+        when(game.getCurrentStage()).thenReturn(mock(Stage.class));
+        when(game.getCurrentPoll()).thenReturn(poll);
+        when(game.getVersion()).thenReturn(1l);
+    }
+
+    @Test
+    void testBuild_censorsPollForNonParticipants() {
+        GameSnapshot snapshot = GameSnapshot.build(game, null, noActions);
+
+        assertEquals(poll.getId(), snapshot.getPollId());
+        assertEquals(1, snapshot.getPoll(true).getParticipants().size());
+        assertEquals(1, snapshot.getPoll(true).getPollOptions().size());
+        assertTrue(snapshot.getPoll(false).getParticipants().isEmpty());
+        assertTrue(snapshot.getPoll(false).getPollOptions().isEmpty());
+        assertEquals("question", snapshot.getPoll(false).getQuestion());
+    }
+
+    @Test
+    void testBuild_withoutPoll() {
+        when(game.getCurrentPoll()).thenThrow(new IllegalStateException());
+        GameSnapshot snapshot = GameSnapshot.build(game, null, noActions);
+
+        assertNull(snapshot.getPollId());
+        assertNull(snapshot.getPoll(true));
+        assertTrue(snapshot.isCurrent(game));
+    }
+
+    @Test
+    void testIsCurrent() {
+        GameSnapshot snapshot = GameSnapshot.build(game, null, noActions);
+        assertTrue(snapshot.isCurrent(game));
+
+        poll.castVote(participant, option);
+        assertFalse(snapshot.isCurrent(game));
+    }
+
+    @Test
+    void testBuild_reusesUnchangedGame() {
+        GameSnapshot first = GameSnapshot.build(game, null, noActions);
+        poll.castVote(participant, option);
+        GameSnapshot second = GameSnapshot.build(game, first, noActions);
+
+        assertSame(first.getGame(), second.getGame());
+        assertNotSame(first.getPoll(true), second.getPoll(true));
+        assertEquals(1, second.getPoll(true).getPollOptions().get(0).getSupporters().size());
+    }
+
+    @Test
+    void testBuild_reusesUnchangedPoll() {
+        GameSnapshot first = GameSnapshot.build(game, null, noActions);
+        when(game.getVersion()).thenReturn(2l);
+        GameSnapshot second = GameSnapshot.build(game, first, noActions);
+
+        assertNotSame(first.getGame(), second.getGame());
+        assertSame(first.getPoll(true), second.getPoll(true));
+        assertSame(first.getPoll(false), second.getPoll(false));
+    }
+
+    @Test
+    void testBuild_lobbyChangeRebuildsEverything() {
+        GameSnapshot first = GameSnapshot.build(game, null, noActions);
+        lobby.addPlayer(new Player(2l, "other"));
+        GameSnapshot second = GameSnapshot.build(game, first, noActions);
+
+        assertNotSame(first.getGame(), second.getGame());
+        assertNotSame(first.getPoll(true), second.getPoll(true));
+        assertEquals(2, second.getGame().getLobby().getPlayers().size());
+    }
+}
@@ -0,0 +1,136 @@
+package ch.uzh.ifi.hase.soprafs23.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import ch.uzh.ifi.hase.soprafs23.entity.User;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Lobby;
+import ch.uzh.ifi.hase.soprafs23.logic.lobby.Player;
+
+public class LobbyServiceConcurrencyTest {
+    private static final int THREADS = 200;
+    private static final int ADMINS = 100;
+    private static final int USERS = 1000;
+    private static final int ROUNDS = 20;
+
+    private final LobbyService lobbyService = new LobbyService();
+
+    private User createUser(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        return user;
+    }
+
+    private void runUser(User user, List<Lobby> lobbies) {
+        for (int i = 0; i < ROUNDS; i++) {
+            Lobby lobby = lobbies.get(ThreadLocalRandom.current().nextInt(lobbies.size()));
+            try {
+                lobbyService.joinUserToLobby(user, lobby);
+            } catch (ResponseStatusException e) {
+                continue;
+            }
+            if (ThreadLocalRandom.current().nextBoolean()) {
+                lobbyService.removeUserFromLobby(user, lobby);
+            }
+            else {
+                return;
+            }
+        }
+    }
+
+    private void runAdmin(User admin) {
+        for (int i = 0; i < ROUNDS; i++) {
+            Lobby lobby = lobbyService.createNewLobby(admin);
+            Thread.yield();
+            if (i < ROUNDS - 1 && ThreadLocalRandom.current().nextBoolean()) {
+                lobbyService.dissolveLobby(lobby);
+            }
+            else {
+                return;
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentCreateJoinDissolve() throws Exception {
+        List<Lobby> initialLobbies = new ArrayList<>();
+        for (long id = 1; id <= ADMINS; id++) {
+            initialLobbies.add(lobbyService.createNewLobby(createUser(id)));
+        }
+        for (Lobby lobby : initialLobbies) {
+            lobbyService.dissolveLobby(lobby);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        List<Lobby> joinableLobbies = new ArrayList<>();
+        for (long id = ADMINS + 1; id <= 2 * ADMINS; id++) {
+            joinableLobbies.add(lobbyService.createNewLobby(createUser(id)));
+        }
+        for (long id = 1; id <= ADMINS; id++) {
+            User admin = createUser(id);
+            futures.add(executor.submit(() -> {
+                start.await();
+                runAdmin(admin);
+                return null;
+            }));
+        }
+        for (long id = 2 * ADMINS + 1; id <= 2 * ADMINS + USERS; id++) {
+            User user = createUser(id);
+            futures.add(executor.submit(() -> {
+                start.await();
+                runUser(user, joinableLobbies);
+                return null;
+            }));
+        }
+        for (int i = 0; i < ADMINS / 2; i++) {
+            Lobby lobby = joinableLobbies.get(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                lobbyService.dissolveLobby(lobby);
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(ADMINS + ADMINS / 2, lobbyService.getLobbies().size());
+        Set<Long> playersInLobbies = new HashSet<>();
+        Set<Long> lobbyIds = new HashSet<>();
+        for (Lobby lobby : lobbyService.getLobbies()) {
+            assertTrue(lobbyIds.add(lobby.getId()), "Duplicate lobby id");
+            assertTrue(lobby.getLobbySize() <= Lobby.MAX_SIZE, "Lobby exceeds maximum size");
+            for (Player player : lobby.getPlayers()) {
+                assertTrue(playersInLobbies.add(player.getId()), "Player is in more than one lobby");
+                assertEquals(lobby, lobbyService.getLobbyOfUser(player.getId()));
+            }
+        }
+        for (long id = 1; id <= 2 * ADMINS + USERS; id++) {
+            if (!playersInLobbies.contains(id)) {
+                assertNull(lobbyService.getLobbyOfUser(id));
+            }
+        }
+    }
+}
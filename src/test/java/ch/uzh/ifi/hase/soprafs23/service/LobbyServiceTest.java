@@ -1,6 +1,10 @@
 package ch.uzh.ifi.hase.soprafs23.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -15,6 +19,7 @@ import ch.uzh.ifi.hase.soprafs23.logic.role.RoleInformationComparator;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Villager;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Werewolf;
 import ch.uzh.ifi.hase.soprafs23.logic.role.gameroles.Witch;
+import ch.uzh.ifi.hase.soprafs23.rest.dto.LobbyGetDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.LobbySettingsDTO;
 import ch.uzh.ifi.hase.soprafs23.rest.dto.RoleGetDTO;
 
@@ -59,6 +64,45 @@ public class LobbyServiceTest {
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
     }
 
+    @Test
+    void testCreateNewLobby_creatorInAnotherLobby() {
+        User admin = createTestAdmin();
+        User creator = createTestUser(2l, "creator");
+        Lobby lobby = lobbyService.createNewLobby(admin);
+        lobbyService.joinUserToLobby(creator, lobby);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> lobbyService.createNewLobby(creator));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        assertEquals(1, lobbyService.getLobbies().size());
+        assertEquals(lobby, lobbyService.getLobbyOfUser(creator.getId()));
+
+        // leaving the lobby makes the creator free to open their own
+        lobbyService.removeUserFromLobby(creator, lobby);
+        Lobby own = lobbyService.createNewLobby(creator);
+        assertEquals(own, lobbyService.getLobbyOfUser(creator.getId()));
+    }
+
+    @Test
+    void testGetLobbyETag_changesOnJoin() {
+        Lobby lobby = lobbyService.createNewLobby(createTestAdmin());
+        String eTag = lobbyService.getLobbyETag(lobby);
+        assertEquals(eTag, lobbyService.getLobbyETag(lobby));
+        lobbyService.joinUserToLobby(createTestUser(2l, "user"), lobby);
+        assertNotEquals(eTag, lobbyService.getLobbyETag(lobby));
+    }
+
+    @Test
+    void testToLobbyGetDTO_cachedUntilChanged() {
+        Lobby lobby = lobbyService.createNewLobby(createTestAdmin());
+        LobbyGetDTO lobbyGetDTO = lobbyService.toLobbyGetDTO(lobby);
+        assertSame(lobbyGetDTO, lobbyService.toLobbyGetDTO(lobby));
+
+        lobbyService.joinUserToLobby(createTestUser(2l, "user"), lobby);
+        LobbyGetDTO changed = lobbyService.toLobbyGetDTO(lobby);
+        assertNotSame(lobbyGetDTO, changed);
+        assertEquals(2, changed.getPlayers().size());
+    }
+
     @Test
     void testGetLobbyById() {
         User admin = createTestAdmin();
@@ -337,4 +381,54 @@ public class LobbyServiceTest {
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> lobbyService.validateUserIsAdmin(admin, lobby));
         assertEquals(HttpStatus.FORBIDDEN, exception.getStatus());
     }
+
+    @Test
+    void testGetLobbyOfUser_joinedUser() {
+        Lobby lobby = lobbyService.createNewLobby(createTestAdmin());
+        User joiningUser = createTestUser(2L, "test");
+        lobbyService.joinUserToLobby(joiningUser, lobby);
+        assertEquals(lobby, lobbyService.getLobbyOfUser(2L));
+    }
+
+    @Test
+    void testGetLobbyOfUser_noLobby() {
+        lobbyService.createNewLobby(createTestAdmin());
+        assertNull(lobbyService.getLobbyOfUser(2L));
+    }
+
+    @Test
+    void testGetLobbyOfUser_afterRemove() {
+        Lobby lobby = lobbyService.createNewLobby(createTestAdmin());
+        User joiningUser = createTestUser(2L, "test");
+        lobbyService.joinUserToLobby(joiningUser, lobby);
+        lobbyService.removeUserFromLobby(joiningUser, lobby);
+
+        assertNull(lobbyService.getLobbyOfUser(2L));
+        Lobby otherLobby = lobbyService.createNewLobby(createTestUser(3L, "other"));
+        lobbyService.joinUserToLobby(joiningUser, otherLobby);
+        assertEquals(otherLobby, lobbyService.getLobbyOfUser(2L));
+    }
+
+    @Test
+    void testOnLobbyDissolved_clearsIndex() {
+        User admin = createTestAdmin();
+        Lobby lobby = lobbyService.createNewLobby(admin);
+        lobbyService.joinUserToLobby(createTestUser(2L, "test"), lobby);
+        lobbyService.dissolveLobby(lobby);
+
+        assertNull(lobbyService.getLobbyOfUser(1L));
+        assertNull(lobbyService.getLobbyOfUser(2L));
+        Lobby newLobby = lobbyService.createNewLobby(admin);
+        assertEquals(newLobby, lobbyService.getLobbyOfUser(1L));
+    }
+
+    @Test
+    void testReInstatiatePlayers_keepsIndex() {
+        Lobby lobby = lobbyService.createNewLobby(createTestAdmin());
+        lobbyService.joinUserToLobby(createTestUser(2L, "test"), lobby);
+        lobbyService.reInstatiatePlayers(lobby);
+
+        assertEquals(lobby, lobbyService.getLobbyOfUser(1L));
+        assertEquals(lobby, lobbyService.getLobbyOfUser(2L));
+    }
 }
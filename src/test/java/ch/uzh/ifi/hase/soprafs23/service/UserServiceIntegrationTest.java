@@ -21,7 +21,7 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 
 @WebAppConfiguration
-@SpringBootTest
+@SpringBootTest(properties = "agora.reconcile-on-startup=false")
 public class UserServiceIntegrationTest {
 
   @Qualifier("userRepository")
@@ -189,9 +189,52 @@ public class UserServiceTest {
         userService.validateUsernameNotExists(user);
     }
 
+    @Test
+    public void getUserByToken_repeatedLookup_hitsRepositoryOnce() {
+        testUser.setToken("1234");
+        Mockito.when(userRepository.findByToken("1234")).thenReturn(testUser);
 
+        assertEquals(testUser, userService.getUserByToken("1234"));
+        assertEquals(testUser, userService.getUserByToken("1234"));
+        userService.validateToken("1234");
 
+        Mockito.verify(userRepository, Mockito.times(1)).findByToken("1234");
+        assertEquals(2, userService.getTokenCache().getHits());
+    }
 
+    @Test
+    public void getUserByToken_unknownToken_throwsException() {
+        Mockito.when(userRepository.findByToken(Mockito.any())).thenReturn(null);
 
-}
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> userService.getUserByToken("1234"));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
+    }
+
+    @Test
+    public void loginUser_invalidatesOldToken() {
+        testUser.setToken("oldToken");
+        Mockito.when(userRepository.findByToken("oldToken")).thenReturn(testUser);
+        userService.getUserByToken("oldToken");
 
+        Mockito.when(userRepository.findByUsername(Mockito.any())).thenReturn(testUser);
+        Mockito.when(userRepository.findByToken("oldToken")).thenReturn(null);
+        User loggedInUser = userService.loginUser(testUser);
+
+        assertThrows(ResponseStatusException.class, () -> userService.getUserByToken("oldToken"));
+        assertEquals(loggedInUser, userService.getUserByToken(loggedInUser.getToken()));
+    }
+
+    @Test
+    public void getUserByToken_invalidatedDuringLookup_notCached() {
+        testUser.setToken("oldToken");
+        Mockito.when(userRepository.findByToken("oldToken")).thenAnswer(invocation -> {
+            // a concurrent login revokes the token while the repository is read
+            userService.getTokenCache().invalidate("oldToken");
+            return testUser;
+        });
+
+        userService.getUserByToken("oldToken");
+
+        assertEquals(0, userService.getTokenCache().size());
+    }
+}
@@ -0,0 +1,123 @@
+package ch.uzh.ifi.hase.soprafs23.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.entity.User;
+
+public class UserTokenCacheTest {
+
+    private User createUser(long id, String token) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setToken(token);
+        return user;
+    }
+
+    @Test
+    void get_cachedAndUnknownToken_countsHitAndMiss() {
+        UserTokenCache cache = new UserTokenCache(2);
+        User user = createUser(1L, "a");
+        cache.put(user);
+
+        assertSame(user, cache.get("a"));
+        assertNull(cache.get("b"));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void put_overCapacity_evictsLeastRecentlyUsed() {
+        UserTokenCache cache = new UserTokenCache(2);
+        User u1 = createUser(1L, "a");
+        User u2 = createUser(2L, "b");
+        User u3 = createUser(3L, "c");
+        cache.put(u1);
+        cache.put(u2);
+        cache.get("a");
+        cache.put(u3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertSame(u1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertSame(u3, cache.get("c"));
+    }
+
+    @Test
+    void invalidate_cachedToken_removesUser() {
+        UserTokenCache cache = new UserTokenCache();
+        cache.put(createUser(1L, "a"));
+        cache.invalidate("a");
+        cache.invalidate(null);
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void put_withoutToken_ignored() {
+        UserTokenCache cache = new UserTokenCache();
+        cache.put(createUser(1L, null));
+        cache.put(null);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_concurrentPuts_staysWithinCapacity() {
+        UserTokenCache cache = new UserTokenCache(16);
+        List<CompletableFuture<Void>> puts = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int offset = thread * 1000;
+            puts.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    cache.put(createUser(offset + i, "token" + (offset + i)));
+                }
+            }));
+        }
+        puts.forEach(CompletableFuture::join);
+
+        assertEquals(16, cache.size());
+        assertEquals(8000 - 16, cache.getEvictions());
+    }
+
+    @Test
+    void putLoaded_invalidatedSinceStamp_notCached() {
+        UserTokenCache cache = new UserTokenCache();
+        long stamp = cache.getInvalidationStamp();
+        cache.invalidate("other");
+        cache.putLoaded("a", createUser(1L, "a"), stamp);
+        assertEquals(0, cache.size());
+
+        User user = createUser(1L, "a");
+        cache.putLoaded("a", user, cache.getInvalidationStamp());
+        assertSame(user, cache.get("a"));
+    }
+
+    @Test
+    void put_sameTokenRepeatedly_keepsOneEntry() {
+        UserTokenCache cache = new UserTokenCache(4);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(createUser(1L, "a"));
+            cache.invalidate("b");
+        }
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(1L, cache.get("a").getId());
+    }
+
+    @Test
+    void constructor_invalidCapacity_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new UserTokenCache(0));
+    }
+}
@@ -0,0 +1,54 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.StageType;
+
+public class GameSimulatorTest {
+
+    @Test
+    void testPlay_randomVotes() {
+        GameSimulator simulator = new GameSimulator(new RandomVoteStrategy());
+        for (long seed = 0; seed < 20; seed++) {
+            SimulatedGame game = simulator.play(8, seed);
+            assertEquals(8, game.lobbySize());
+            assertTrue(Set.of("Werewolf", "Villager", "Lover").contains(game.winner()), game.winner());
+            assertTrue(game.getStageCount(StageType.Day) >= 1);
+            assertTrue(game.polls() > 0);
+        }
+    }
+
+    @Test
+    void testPlay_followLeader() {
+        GameSimulator simulator = new GameSimulator(new FollowLeaderStrategy());
+        SimulatedGame game = simulator.play(20, 1);
+        assertTrue(game.getStageCount(StageType.Day) + game.getStageCount(StageType.Night) >= 2);
+    }
+
+    @Test
+    void testPlay_abstainingBotsFinishOnTimers() {
+        GameSimulator simulator = new GameSimulator((poll, voter, random) -> Optional.empty());
+        SimulatedGame game = simulator.play(5, 0);
+        assertTrue(game.virtualMillis() > 0);
+    }
+
+    @Test
+    void testPlay_sameSeedSameGame() {
+        GameSimulator simulator = new GameSimulator(new RandomVoteStrategy());
+        for (long seed = 0; seed < 10; seed++) {
+            SimulatedGame first = simulator.play(12, seed);
+            SimulatedGame second = simulator.play(12, seed);
+            assertEquals(first.winner(), second.winner());
+            assertEquals(first.polls(), second.polls());
+            assertArrayEquals(first.stageCounts(), second.stageCounts());
+            assertEquals(first.virtualMillis(), second.virtualMillis());
+        }
+    }
+}
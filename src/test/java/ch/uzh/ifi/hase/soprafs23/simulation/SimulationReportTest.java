@@ -0,0 +1,42 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.StageType;
+
+public class SimulationReportTest {
+
+    private static SimulatedGame game(int lobbySize, String winner, long dayBytes) {
+        return new SimulatedGame(lobbySize, winner, 3, new long[] {2, 1}, new long[] {dayBytes, 100}, 60_000);
+    }
+
+    @Test
+    void testAddAndMerge() {
+        SimulationReport report = new SimulationReport();
+        report.add(game(5, "Werewolf", 1000));
+        SimulationReport other = new SimulationReport();
+        other.add(game(5, "Villager", 3000));
+        other.add(game(8, "Villager", 2000));
+
+        report.merge(other);
+        assertEquals(3, report.getGames());
+        assertEquals(9, report.getPolls());
+        assertEquals(6, report.getStageCount(StageType.Day));
+        assertEquals(1000, report.getAllocatedBytesPerStage(StageType.Day));
+        assertEquals(100, report.getAllocatedBytesPerStage(StageType.Night));
+        assertEquals(0.5, report.getWinRate(5, "Werewolf"));
+        assertEquals(1, report.getWinRate(8, "Villager"));
+        assertEquals(0, report.getWinRate(20, "Villager"));
+    }
+
+    @Test
+    void testAllocationNotMeasured() {
+        SimulationReport report = new SimulationReport();
+        report.add(game(5, "Werewolf", -1));
+        assertEquals(-1, report.getAllocatedBytesPerStage(StageType.Day));
+        assertTrue(report.toString().contains("lobby size 5: Werewolf 100.0%"));
+    }
+}
@@ -0,0 +1,35 @@
+package ch.uzh.ifi.hase.soprafs23.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import ch.uzh.ifi.hase.soprafs23.logic.game.StageType;
+
+public class SimulationRunnerTest {
+    private final SimulationRunner runner = new SimulationRunner(4, RandomVoteStrategy::new);
+
+    @AfterEach
+    void shutdown() {
+        runner.shutdown();
+    }
+
+    @Test
+    void testRun() {
+        SimulationReport report = runner.run(List.of(5, 12), 50, 7);
+
+        assertEquals(100, report.getGames());
+        assertTrue(report.getGamesPerSecond() > 0);
+        assertTrue(report.getStageCount(StageType.Day) >= 100);
+        Map<Integer, Map<String, Long>> wins = report.getWinsByLobbySize();
+        assertEquals(List.of(5, 12), List.copyOf(wins.keySet()));
+        assertEquals(50, wins.get(5).values().stream().mapToLong(Long::longValue).sum());
+        double winRates = wins.get(12).keySet().stream().mapToDouble(winner -> report.getWinRate(12, winner)).sum();
+        assertEquals(1, winRates, 1e-9);
+    }
+}